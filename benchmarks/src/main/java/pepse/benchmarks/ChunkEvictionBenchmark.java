@@ -0,0 +1,80 @@
+package pepse.benchmarks;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pepse.world.Block;
+import pepse.world.chunks.ChunkObjectRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of streaming one chunk through the object registry: the oldest chunk is
+ * evicted, its objects recycled, and a new chunk of pooled blocks registered. The
+ * number of chunks already registered is the history the eviction path has to cope
+ * with, so its cost must not grow with it.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkEvictionBenchmark {
+	// Number of blocks in every chunk, a chunk of ten columns of ground
+	private static final int BLOCKS_PER_CHUNK = 100;
+
+	// Number of chunks registered while one is streamed
+	@Param({"8", "64", "512"})
+	public int loadedChunks;
+
+	// The registry the chunks are streamed through
+	private ChunkObjectRegistry registry;
+	// The oldest registered chunk
+	private int firstChunk;
+	// The chunk registered next
+	private int nextChunk;
+
+	/**
+	 * Registers the loaded chunks.
+	 */
+	@Setup
+	public void setUp() {
+		this.registry = new ChunkObjectRegistry(new GameObjectCollection());
+		this.firstChunk = 0;
+		this.nextChunk = 0;
+		while (this.nextChunk < this.loadedChunks) {
+			this.addChunk();
+		}
+	}
+
+	/**
+	 * Evicts the oldest chunk, recycles its objects and registers a new chunk.
+	 *
+	 * @return the number of objects registered
+	 */
+	@Benchmark
+	public int streamChunk() {
+		this.registry.removeChunk(this.firstChunk++);
+		this.registry.recycleRemoved();
+		this.addChunk();
+		return this.registry.objectCount();
+	}
+
+	/*
+	 * Registers the blocks of the next chunk.
+	 */
+	private void addChunk() {
+		int chunk = this.nextChunk++;
+		for (int i = 0; i < BLOCKS_PER_CHUNK; i++) {
+			this.registry.add(chunk, Block.obtain(new Vector2(chunk, i), null), Layer.STATIC_OBJECTS);
+		}
+	}
+}
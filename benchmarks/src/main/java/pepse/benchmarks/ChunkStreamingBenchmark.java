@@ -0,0 +1,121 @@
+package pepse.benchmarks;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.world.Block;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkPlanner;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the stages a chunk goes through when the world streams it in: planning
+ * its column tops and tree layouts, and building its baked ground, its ground colliders
+ * and its trees from the planned data, as the chunk generator does.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkStreamingBenchmark {
+	// Width of a chunk, the ten block columns the game streams at once
+	private static final int CHUNK_WIDTH = Block.SIZE * 10;
+	// Number of chunks planned ahead for the build stages, twice the ranges the terrain
+	// keeps baked, so cycling through them misses the baked ground cache every time
+	private static final int PLANNED_CHUNKS = 64;
+
+	// Plans the chunks
+	private ChunkPlanner planner;
+	// The chunks planned ahead, left of the chunks the plan benchmark walks through
+	private ChunkData[] planned;
+	// The planned chunk built next
+	private int nextPlanned;
+
+	/**
+	 * Creates the planner and plans the chunks the build stages cycle through.
+	 *
+	 * @param state the generators
+	 */
+	@Setup
+	public void setUp(GenerationState state) {
+		this.planner = new ChunkPlanner(state.terrain(), state.flora());
+		this.planned = new ChunkData[PLANNED_CHUNKS];
+		for (int i = 0; i < PLANNED_CHUNKS; i++) {
+			int chunk = -1 - i;
+			this.planned[i] = this.planner.plan(chunk, chunk * CHUNK_WIDTH,
+					(chunk + 1) * CHUNK_WIDTH);
+		}
+		this.nextPlanned = 0;
+	}
+
+	/**
+	 * Plans the column tops and tree layouts of the next chunk of fresh world.
+	 *
+	 * @param state the generators
+	 * @return the planned chunk
+	 */
+	@Benchmark
+	public ChunkData plan(GenerationState state) {
+		int minX = state.advance(CHUNK_WIDTH);
+		return this.planner.plan(minX / CHUNK_WIDTH, minX, minX + CHUNK_WIDTH);
+	}
+
+	/**
+	 * Rasterizes the ground of the next planned chunk into a single object.
+	 *
+	 * @param state the generators
+	 * @return the baked ground
+	 */
+	@Benchmark
+	public GameObject createBakedInRange(GenerationState state) {
+		ChunkData data = this.nextPlanned();
+		return state.terrain().createBakedInRange(data.getChunk() * CHUNK_WIDTH,
+				data.getColumnTops());
+	}
+
+	/**
+	 * Builds the invisible ground blocks of the next planned chunk, and recycles them.
+	 *
+	 * @param state     the generators
+	 * @param blackhole consumes the blocks
+	 */
+	@Benchmark
+	public void createCollidersInRange(GenerationState state, Blackhole blackhole) {
+		ChunkData data = this.nextPlanned();
+		List<Block> blocks = state.terrain().createCollidersInRange(
+				data.getChunk() * CHUNK_WIDTH, data.getColumnTops());
+		blackhole.consume(blocks);
+		GenerationState.recycle(blocks);
+	}
+
+	/**
+	 * Builds the trees of the next planned chunk from their layouts, and recycles them.
+	 *
+	 * @param state     the generators
+	 * @param blackhole consumes the trees
+	 */
+	@Benchmark
+	public void createFromLayouts(GenerationState state, Blackhole blackhole) {
+		List<GameObject> forest = state.flora().createFromLayouts(this.nextPlanned().getTrees());
+		blackhole.consume(forest);
+		GenerationState.recycle(forest);
+	}
+
+	/*
+	 * Returns the next planned chunk, cycling through them.
+	 */
+	private ChunkData nextPlanned() {
+		ChunkData data = this.planned[this.nextPlanned];
+		this.nextPlanned = (this.nextPlanned + 1) % PLANNED_CHUNKS;
+		return data;
+	}
+}
@@ -0,0 +1,32 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import pepse.util.ColorSupplier;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of approximating the ground color.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ColorSupplierBenchmark {
+	// The base color of the ground
+	private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
+
+	/**
+	 * Approximates the base color of the ground.
+	 *
+	 * @return the approximated color
+	 */
+	@Benchmark
+	public Color approximateColor() {
+		return ColorSupplier.approximateColor(BASE_GROUND_COLOR);
+	}
+}
@@ -0,0 +1,59 @@
+package pepse.benchmarks;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.world.Block;
+import pepse.world.trees.TreeByDensity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of growing the forest of a screen of fresh world, and of building a
+ * single tree.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FloraBenchmark {
+	// Seed of the trees, the one the forest uses
+	private static final long TREE_SEED = 12;
+
+	/**
+	 * Grows the trees of the next screen of the world, and recycles them.
+	 *
+	 * @param state     the generators
+	 * @param blackhole consumes the trees
+	 */
+	@Benchmark
+	public void createInRange(GenerationState state, Blackhole blackhole) {
+		int width = GenerationState.screenWidth();
+		int minX = state.advance(width);
+		List<GameObject> forest = state.flora().createInRange(minX, minX + width);
+		blackhole.consume(forest);
+		GenerationState.recycle(forest);
+	}
+
+	/**
+	 * Builds the trunk, leaves and fruits of a tree at the next column, and recycles them.
+	 *
+	 * @param state     the generators
+	 * @param blackhole consumes the tree
+	 */
+	@Benchmark
+	public void buildTree(GenerationState state, Blackhole blackhole) {
+		int x = state.advance(Block.SIZE);
+		List<GameObject> tree = new TreeByDensity(TREE_SEED, x,
+				state.terrain().groundHeightAt(x)).build();
+		blackhole.consume(tree);
+		GenerationState.recycle(tree);
+	}
+}
@@ -0,0 +1,96 @@
+package pepse.benchmarks;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pepse.world.KindedObject;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.List;
+
+/**
+ * The world generators shared by the generation benchmarks, set up as the game sets
+ * them up, and a cursor walking the world so every call covers fresh ground.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@State(Scope.Thread)
+public class GenerationState {
+	// Width of the game window
+	private static final int SCREEN_WIDTH = 1000;
+	// Height of the game window
+	private static final int SCREEN_HEIGHT = 900;
+	// Seed of the terrain, the one the game uses
+	private static final int SEED = 10;
+
+	// Generates the ground
+	private Terrain terrain;
+	// Generates the trees
+	private Flora flora;
+	// The x-coordinate the next generated range starts at
+	private int nextX;
+
+	/**
+	 * Creates the generators.
+	 */
+	@Setup
+	public void setUp() {
+		this.terrain = new Terrain(new Vector2(SCREEN_WIDTH, SCREEN_HEIGHT), SEED);
+		this.flora = new Flora(this.terrain::groundHeightAt);
+		this.nextX = 0;
+	}
+
+	/**
+	 * Returns the ground generator.
+	 *
+	 * @return the terrain
+	 */
+	public Terrain terrain() {
+		return this.terrain;
+	}
+
+	/**
+	 * Returns the tree generator.
+	 *
+	 * @return the flora
+	 */
+	public Flora flora() {
+		return this.flora;
+	}
+
+	/**
+	 * Returns the start of the next range of the world and moves past it.
+	 *
+	 * @param width the width of the range in pixels
+	 * @return the minimal x-coordinate of the range
+	 */
+	public int advance(int width) {
+		int minX = this.nextX;
+		this.nextX += width;
+		return minX;
+	}
+
+	/**
+	 * Returns the width of the game window.
+	 *
+	 * @return the window width in pixels
+	 */
+	public static int screenWidth() {
+		return SCREEN_WIDTH;
+	}
+
+	/**
+	 * Puts generated objects back into their pools, as evicting their chunk would, so
+	 * the pools stay at their steady size.
+	 *
+	 * @param objects the generated objects
+	 */
+	public static void recycle(List<? extends GameObject> objects) {
+		for (GameObject object : objects) {
+			KindedObject.recycle(object);
+		}
+	}
+}
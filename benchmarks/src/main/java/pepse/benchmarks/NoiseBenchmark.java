@@ -0,0 +1,78 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pepse.util.NoiseGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single noise sample, and of the samples along a run of block columns,
+ * at the factor the terrain samples it with.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoiseBenchmark {
+	// Seed and start point of the generator, the ones the terrain uses
+	private static final int SEED = 10;
+	private static final int START_POINT = 600;
+	// Factor the terrain samples the noise with, seven blocks
+	private static final double FACTOR = 30 * 7;
+	// Distance between two samples, off the block grid so no sample repeats
+	private static final double STEP = 7.3;
+	// Distance between two samples of a run, a block column
+	private static final double COLUMN_STEP = 30;
+	// Number of samples of a run, the block columns the terrain caches at once
+	private static final int RUN_COLUMNS = 64;
+
+	// The generator sampled
+	private NoiseGenerator generator;
+	// The x-coordinate of the next sample
+	private double x;
+	// Receives the samples of a run
+	private float[] columns;
+
+	/**
+	 * Creates the generator.
+	 */
+	@Setup
+	public void setUp() {
+		this.generator = new NoiseGenerator(SEED, START_POINT);
+		this.x = 0;
+		this.columns = new float[RUN_COLUMNS];
+	}
+
+	/**
+	 * Samples the noise at the next x-coordinate.
+	 *
+	 * @return the noise value
+	 */
+	@Benchmark
+	public double noise() {
+		this.x += STEP;
+		return this.generator.noise(this.x, FACTOR);
+	}
+
+	/**
+	 * Samples the noise at the next RUN_COLUMNS block columns, as the terrain does on a
+	 * height cache miss.
+	 *
+	 * @return the samples
+	 */
+	@Benchmark
+	public float[] noiseColumns() {
+		for (int i = 0; i < RUN_COLUMNS; i++) {
+			this.columns[i] = (float) this.generator.noise(this.x + i * COLUMN_STEP, FACTOR);
+		}
+		this.x += RUN_COLUMNS * COLUMN_STEP;
+		return this.columns;
+	}
+}
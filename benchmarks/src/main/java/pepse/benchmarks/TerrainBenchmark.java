@@ -0,0 +1,81 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.world.Block;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the ground height queries and of building the ground blocks of one and
+ * ten screen widths of fresh world.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TerrainBenchmark {
+	// Distance between two height queries off the block grid
+	private static final float OFF_GRID_STEP = 7.3f;
+
+	// The x-coordinate of the next height query
+	private float queryX;
+
+	/**
+	 * Queries the ground height at the next column of the block grid, the cached path.
+	 *
+	 * @param state the generators
+	 * @return the ground height
+	 */
+	@Benchmark
+	public float groundHeightAtColumn(GenerationState state) {
+		return state.terrain().groundHeightAt(state.advance(Block.SIZE));
+	}
+
+	/**
+	 * Queries the ground height at the next x-coordinate off the block grid, which
+	 * samples the noise.
+	 *
+	 * @param state the generators
+	 * @return the ground height
+	 */
+	@Benchmark
+	public float groundHeightAtOffGrid(GenerationState state) {
+		this.queryX += OFF_GRID_STEP;
+		return state.terrain().groundHeightAt(this.queryX);
+	}
+
+	/**
+	 * Builds the ground blocks of the next screens of the world, and recycles them.
+	 *
+	 * @param state     the generators
+	 * @param range     the number of screens built
+	 * @param blackhole consumes the blocks
+	 */
+	@Benchmark
+	public void createInRange(GenerationState state, Range range, Blackhole blackhole) {
+		int width = range.screens * GenerationState.screenWidth();
+		int minX = state.advance(width);
+		List<Block> blocks = state.terrain().createInRange(minX, minX + width);
+		blackhole.consume(blocks);
+		GenerationState.recycle(blocks);
+	}
+
+	/**
+	 * The width of the ground built by createInRange.
+	 */
+	@State(Scope.Thread)
+	public static class Range {
+		// Number of screen widths of ground built by one call
+		@Param({"1", "10"})
+		public int screens;
+	}
+}
@@ -0,0 +1,36 @@
+package pepse;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the headless simulation for a bounded number of frames, so a leak or a crash of
+ * the streaming world fails the build instead of waiting for a soak run.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+class HeadlessSimulationTest {
+	// Frames of the bounded run, a few walking cycles out and back
+	private static final int FRAMES = 30_000;
+	// Frames between two samples of the bounded run
+	private static final int SAMPLE_FRAMES = 5_000;
+
+	/**
+	 * A bounded run walks the world and passes its checks.
+	 */
+	@Test
+	void boundedRunPasses() {
+		assertTrue(HeadlessSimulation.simulate(FRAMES, SAMPLE_FRAMES));
+	}
+
+	/**
+	 * A run too short to take a sample after the baseline fails rather than passing
+	 * with nothing checked.
+	 */
+	@Test
+	void runWithoutSamplesFails() {
+		assertFalse(HeadlessSimulation.simulate(SAMPLE_FRAMES / 2, SAMPLE_FRAMES));
+	}
+}
@@ -0,0 +1,98 @@
+package pepse.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the noise against values the generator gave before its one dimensional path
+ * existed, and every octave of that path against the three dimensional one.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+class NoiseGeneratorTest {
+	// Factor the noise is sampled with, seven blocks
+	private static final double FACTOR = 30 * 7;
+	// The terrain's generator: seed, start point, and a run of block columns around 0
+	private static final double TERRAIN_SEED = 10;
+	private static final int TERRAIN_START_POINT = 600;
+	private static final double TERRAIN_START_X = -470.5;
+	private static final double TERRAIN_STEP = 30;
+	// Bits of the noise the terrain's generator gave along its run before the one dimensional path
+	private static final long[] TERRAIN_BASELINE = {
+			0xc0007ddfa4c3deecL, 0x3feb0fa7d0f27eecL, 0xc02b14d943f0d1d1L,
+			0xc0333583eb21c52dL, 0x3fd53e15f6e9f6eaL, 0x400279d484dfddedL,
+			0x40135cc3b0f67c3cL, 0x4013f7dcb3f0d7b4L, 0x3fe6282fe59d2ea9L,
+			0xc024c468283da014L, 0x3fe2adf1fe695221L, 0x4005b200f64f74e0L,
+			0x3fdc0e4f2b983082L, 0x3fe6a13fe4e21be0L, 0xc001928e95edadeaL,
+			0x3fd6d161929463b9L, 0xc00994e0a85ab6a6L};
+	// A generator with a negative seed and a small start point, and a run off the grid
+	private static final double OTHER_SEED = -3;
+	private static final int OTHER_START_POINT = 37;
+	private static final double OTHER_START_X = 12345.5;
+	private static final double OTHER_STEP = 7.3;
+	// Bits of the noise that generator gave along its run before the one dimensional path
+	private static final long[] OTHER_BASELINE = {
+			0x4042769234915efbL, 0x402689debd615752L, 0xc0178dd8b8546911L,
+			0x4003a83a983c1694L, 0x3ff00c0c0bae8ff0L, 0x401199d7b22e54beL,
+			0xc0111bcfce5124fbL, 0x402d7711fd23e334L};
+	// Whole seeds, which the one dimensional path is taken with
+	private static final double[] WHOLE_SEEDS = {10, 0, 1, -3, -256, 1234567};
+	// Number of x values on either side of 0 an octave is checked at
+	private static final int OCTAVE_SAMPLES = 5000;
+	// Distance between two of those x values, off the lattice
+	private static final double OCTAVE_STEP = 0.173;
+	// Message of a failed check
+	private static final String MISMATCH = "noise at x = ";
+
+	/**
+	 * The one dimensional path gives the noise the generators gave before it existed.
+	 */
+	@Test
+	void noiseMatchesBaseline() {
+		assertBaseline(new NoiseGenerator(TERRAIN_SEED, TERRAIN_START_POINT),
+				TERRAIN_START_X, TERRAIN_STEP, TERRAIN_BASELINE);
+		assertBaseline(new NoiseGenerator(OTHER_SEED, OTHER_START_POINT),
+				OTHER_START_X, OTHER_STEP, OTHER_BASELINE);
+	}
+
+	/**
+	 * With a whole seed, an octave of the one dimensional path is the full three
+	 * dimensional noise on the line y = 0, z = 0, left and right of the origin, on and
+	 * off the lattice. A zero may differ in sign only, which the sum of the octaves does
+	 * not keep, so values are compared with a delta of 0.
+	 */
+	@Test
+	void octaveNoiseMatchesSmoothNoise() {
+		for (double seed : WHOLE_SEEDS) {
+			NoiseGenerator generator = new NoiseGenerator(seed, TERRAIN_START_POINT);
+			assertTrue(generator.isOneDimensional());
+			for (int i = -OCTAVE_SAMPLES; i <= OCTAVE_SAMPLES; i++) {
+				assertOctave(generator, i * OCTAVE_STEP);
+				assertOctave(generator, i);
+				assertOctave(generator, Math.nextDown((double) i));
+				assertOctave(generator, Math.nextUp((double) i));
+			}
+		}
+	}
+
+	/*
+	 * Checks an octave of the one dimensional path at x against smoothNoise.
+	 */
+	private static void assertOctave(NoiseGenerator generator, double x) {
+		assertEquals(generator.smoothNoise(x, 0, 0), generator.octaveNoise(x), 0, MISMATCH + x);
+	}
+
+	/*
+	 * Checks the noise along a run against the bits of its baseline.
+	 */
+	private static void assertBaseline(NoiseGenerator generator, double startX,
+									   double stepX, long[] baseline) {
+		for (int i = 0; i < baseline.length; i++) {
+			double x = startX + i * stepX;
+			assertEquals(baseline[i], Double.doubleToRawLongBits(generator.noise(x, FACTOR)),
+					MISMATCH + x);
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package pepse;
+
+import danogl.gui.ImageReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+import pepse.profiling.PepseStats;
+
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Runs the world of the game without a window, for soak and scalability testing.
+ * <p>
+ * The game manager is initialized with stub window, input and image implementations and
+ * updated as fast as possible at a fixed simulated frame time, while a scripted avatar
+ * walks far out and back again, resting and jumping on the way, so chunks are
+ * generated, evicted and loaded again all the time. Every chunk requested in a frame is
+ * generated before the next one, so a run is repeatable and the avatar never walks over
+ * missing ground.
+ * <p>
+ * Every SAMPLE frames, and at the last frame, the heap in use after a collection, the
+ * live objects and the chunk generation time are printed. The first sample is the
+ * baseline, taken once the world is warm, and the last one is checked against it. The
+ * run fails, exiting with status 1, when it took fewer than two samples, when the heap
+ * grew by more than MAX_HEAP_GROWTH megabytes past the baseline, when the live objects
+ * grew past OBJECT_GROWTH times the baseline, or when it ran slower than MIN_FPS frames
+ * per second.
+ * <p>
+ * Configured with system properties: pepse.sim.frames (default 1000000),
+ * pepse.sim.sampleFrames (default 50000), pepse.sim.maxHeapGrowthMb (default 64) and
+ * pepse.sim.minFps (default 0, not checked).
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class HeadlessSimulation {
+	// System property choosing how many frames are simulated
+	private static final String FRAMES_PROPERTY = "pepse.sim.frames";
+	private static final int DEFAULT_FRAMES = 1_000_000;
+	// System property choosing how many frames pass between two samples
+	private static final String SAMPLE_PROPERTY = "pepse.sim.sampleFrames";
+	private static final int DEFAULT_SAMPLE = 50_000;
+	// System property bounding the growth of the heap in use, in megabytes
+	private static final String MAX_HEAP_GROWTH_PROPERTY = "pepse.sim.maxHeapGrowthMb";
+	private static final int DEFAULT_MAX_HEAP_GROWTH = 64;
+	// System property choosing the slowest acceptable simulation, in frames per second
+	private static final String MIN_FPS_PROPERTY = "pepse.sim.minFps";
+	// System property running AWT without a display
+	private static final String HEADLESS_PROPERTY = "java.awt.headless";
+	// Simulated time of a frame, in seconds
+	private static final float FRAME_TIME = 1 / 60f;
+	// Number of times the live objects may grow past the baseline
+	private static final int OBJECT_GROWTH = 2;
+	// Bytes in a megabyte
+	private static final long MEGABYTE = 1 << 20;
+	// Nanoseconds in a second
+	private static final double NANOS_PER_SECOND = 1e9;
+	// Frames of a walking cycle the avatar runs, and then rests to regain its energy
+	private static final int RUN_FRAMES = 150;
+	private static final int REST_FRAMES = 100;
+	// Walking cycles before the avatar turns around
+	private static final int LEG_CYCLES = 40;
+	// Texts printed
+	private static final String SAMPLE_HEADER =
+			"frame,heap_mb,live_objects,pending_recycle,chunks_generated,generation_ms,avatar_x";
+	private static final String SAMPLE_LINE = "%d,%.1f,%d,%d,%d,%.3f,%.0f%n";
+	private static final String SUMMARY = "%d frames in %.1f s, %.0f frames/s%n";
+	private static final String HEAP_FAILURE = "heap grew by %.1f MB, more than %d MB%n";
+	private static final String OBJECT_FAILURE = "live objects grew from %d to %d%n";
+	private static final String FPS_FAILURE = "%.0f frames/s, slower than %d%n";
+	private static final String SAMPLES_FAILURE =
+			"%d frames give no sample after the baseline, simulate more than %d%n";
+	// Names of the methods answered by the stubs themselves
+	private static final String IS_KEY_PRESSED = "isKeyPressed";
+	private static final String HASH_CODE = "hashCode";
+	private static final String EQUALS = "equals";
+	private static final String TO_STRING = "toString";
+
+	// The game simulated
+	private final PepseGameManager game;
+	// Presses the keys of the avatar's walk
+	private final ScriptedWalk walk;
+	// Reads the heap in use
+	private final MemoryMXBean memory;
+	// Number of samples taken
+	private int samples;
+	// The heap in use and live objects of the baseline sample
+	private long baselineHeap;
+	private int baselineObjects;
+	// The heap in use and live objects of the last sample
+	private long lastHeap;
+	private int lastObjects;
+
+	/*
+	 * Creates the game and initializes it with the stubs.
+	 */
+	private HeadlessSimulation() {
+		Vector2 windowDimensions = new Vector2(PepseGameManager.SCREEN_WIDTH,
+				PepseGameManager.SCREEN_HEIGHT);
+		WindowController windowController = stub(WindowController.class,
+				new StubHandler(windowDimensions));
+		this.walk = new ScriptedWalk(windowDimensions);
+		this.game = new PepseGameManager();
+		this.game.initializeGame(new BlankImageReader(windowController), null,
+				stub(UserInputListener.class, this.walk), windowController);
+		this.memory = ManagementFactory.getMemoryMXBean();
+		this.samples = 0;
+	}
+
+	/**
+	 * Runs the simulation and exits with status 1 if it failed.
+	 *
+	 * @param args unused
+	 */
+	public static void main(String[] args) {
+		boolean passed = simulate(Integer.getInteger(FRAMES_PROPERTY, DEFAULT_FRAMES),
+				Integer.getInteger(SAMPLE_PROPERTY, DEFAULT_SAMPLE));
+		System.exit(passed ? 0 : 1);
+	}
+
+	/**
+	 * Simulates a new game for the given number of frames, sampling every sampleFrames
+	 * frames and at the last one, and checks the samples.
+	 *
+	 * @param frames       the number of frames simulated
+	 * @param sampleFrames the number of frames between two samples
+	 * @return true if the simulation passed its checks
+	 */
+	static boolean simulate(int frames, int sampleFrames) {
+		if (System.getProperty(HEADLESS_PROPERTY) == null) {
+			System.setProperty(HEADLESS_PROPERTY, Boolean.TRUE.toString());
+		}
+		return new HeadlessSimulation().run(frames, sampleFrames);
+	}
+
+	/*
+	 * Simulates the given number of frames, sampling every sampleFrames frames and at the
+	 * last one, and checks the samples. The game is shut down at the end, even if it
+	 * failed.
+	 */
+	private boolean run(int frames, int sampleFrames) {
+		System.out.println(SAMPLE_HEADER);
+		long start = System.nanoTime();
+		try {
+			for (int frame = 1; frame <= frames; frame++) {
+				this.walk.setFrame(frame);
+				this.game.update(FRAME_TIME);
+				this.game.awaitGeneration();
+				if (frame % sampleFrames == 0 || frame == frames) {
+					this.sample(frame);
+				}
+			}
+		} finally {
+			this.game.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+		double fps = frames / seconds;
+		System.out.printf(SUMMARY, frames, seconds, fps);
+		if (this.samples < 2) {
+			System.err.printf(SAMPLES_FAILURE, frames, sampleFrames);
+			return false;
+		}
+		return this.check(fps);
+	}
+
+	/*
+	 * Prints the heap in use after a collection, the live objects and the generation
+	 * time, keeping the first sample as the baseline.
+	 */
+	private void sample(int frame) {
+		System.gc();
+		PepseStats stats = this.game.getStats();
+		this.lastHeap = this.memory.getHeapMemoryUsage().getUsed();
+		this.lastObjects = 0;
+		for (int count : stats.getLayerObjectCounts().values()) {
+			this.lastObjects += count;
+		}
+		if (this.samples++ == 0) {
+			this.baselineHeap = this.lastHeap;
+			this.baselineObjects = this.lastObjects;
+		}
+		System.out.printf(SAMPLE_LINE, frame, (double) this.lastHeap / MEGABYTE,
+				this.lastObjects, stats.getPendingRemovedObjects(), stats.getGeneratedChunks(),
+				stats.getAverageGenerationMillis(), stats.getAvatarX());
+	}
+
+	/*
+	 * Checks the last sample against the baseline, and the speed of the run.
+	 */
+	private boolean check(double fps) {
+		boolean passed = true;
+		long heapGrowth = this.lastHeap - this.baselineHeap;
+		int maxHeapGrowth = Integer.getInteger(MAX_HEAP_GROWTH_PROPERTY, DEFAULT_MAX_HEAP_GROWTH);
+		if (heapGrowth > maxHeapGrowth * MEGABYTE) {
+			System.err.printf(HEAP_FAILURE, (double) heapGrowth / MEGABYTE, maxHeapGrowth);
+			passed = false;
+		}
+		if (this.lastObjects > this.baselineObjects * OBJECT_GROWTH) {
+			System.err.printf(OBJECT_FAILURE, this.baselineObjects, this.lastObjects);
+			passed = false;
+		}
+		int minFps = Integer.getInteger(MIN_FPS_PROPERTY, 0);
+		if (fps < minFps) {
+			System.err.printf(FPS_FAILURE, fps, minFps);
+			passed = false;
+		}
+		return passed;
+	}
+
+	/*
+	 * Creates an implementation of an interface answering every call with the handler.
+	 */
+	private static <T> T stub(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+				handler));
+	}
+
+	/*
+	 * Answers every call with a neutral value: the window dimensions for vectors, false,
+	 * zero, or null.
+	 */
+	private static class StubHandler implements InvocationHandler {
+		// The dimensions of the simulated window
+		private final Vector2 windowDimensions;
+
+		/*
+		 * Creates a handler of a window of the given dimensions.
+		 */
+		StubHandler(Vector2 windowDimensions) {
+			this.windowDimensions = windowDimensions;
+		}
+
+		@Override
+		/*
+		 * Answers the methods of Object as an identity, and every other call neutrally.
+		 */
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+				case HASH_CODE:
+					return System.identityHashCode(proxy);
+				case EQUALS:
+					return proxy == args[0];
+				case TO_STRING:
+					return method.getDeclaringClass().getSimpleName();
+				default:
+					return this.neutralValue(method.getReturnType());
+			}
+		}
+
+		/*
+		 * Returns the neutral value of a return type.
+		 */
+		Object neutralValue(Class<?> type) {
+			if (type == Vector2.class) {
+				return this.windowDimensions;
+			}
+			if (type == boolean.class) {
+				return false;
+			}
+			if (type == int.class) {
+				return 0;
+			}
+			if (type == long.class) {
+				return 0L;
+			}
+			if (type == float.class) {
+				return 0f;
+			}
+			if (type == double.class) {
+				return 0d;
+			}
+			return null;
+		}
+	}
+
+	/*
+	 * Presses the keys of a walk that runs a while, jumping as it starts, and rests to
+	 * regain its energy, heading right for LEG_CYCLES cycles and then left as long.
+	 */
+	private static final class ScriptedWalk extends StubHandler {
+		// The frame being simulated
+		private int frame;
+
+		/*
+		 * Creates the walk, answering other calls as a window of the given dimensions.
+		 */
+		ScriptedWalk(Vector2 windowDimensions) {
+			super(windowDimensions);
+		}
+
+		/*
+		 * Moves the walk to the given frame.
+		 */
+		void setFrame(int frame) {
+			this.frame = frame;
+		}
+
+		@Override
+		/*
+		 * Answers whether a key is pressed in the current frame of the walk.
+		 */
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			if (!method.getName().equals(IS_KEY_PRESSED)) {
+				return super.invoke(proxy, method, args);
+			}
+			int key = (Integer) args[0];
+			int cycleFrames = RUN_FRAMES + REST_FRAMES;
+			int cycleFrame = this.frame % cycleFrames;
+			boolean headingRight = this.frame / (cycleFrames * LEG_CYCLES) % 2 == 0;
+			switch (key) {
+				case KeyEvent.VK_RIGHT:
+					return headingRight && cycleFrame < RUN_FRAMES;
+				case KeyEvent.VK_LEFT:
+					return !headingRight && cycleFrame < RUN_FRAMES;
+				case KeyEvent.VK_SPACE:
+					return cycleFrame == 0;
+				default:
+					return false;
+			}
+		}
+	}
+
+	/*
+	 * Reads every image as the same blank pixel, without touching the disk.
+	 */
+	private static final class BlankImageReader extends ImageReader {
+		// The image every read returns
+		private static final ImageRenderable BLANK = new ImageRenderable(
+				new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+
+		/*
+		 * Creates the reader for the given window.
+		 */
+		BlankImageReader(WindowController windowController) {
+			super(windowController);
+		}
+
+		@Override
+		/*
+		 * Returns the blank image.
+		 */
+		public ImageRenderable readImage(String imageFilePath, boolean topLeftPixelIsTransparent) {
+			return BLANK;
+		}
+	}
+}
@@ -12,27 +12,68 @@ import danogl.gui.rendering.Camera;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
+import pepse.hud.DebugOverlay;
+import pepse.profiling.ChunkEvictedEvent;
+import pepse.profiling.FramePhase;
+import pepse.profiling.FrameProfiler;
+import pepse.profiling.PepseStats;
+import pepse.util.GameLayers;
+import pepse.util.TimerWheel;
 import pepse.world.*;
 import pepse.world.AvatarJumpObserver.Cloud;
+import pepse.world.AvatarJumpObserver.Rain;
+import pepse.world.AvatarJumpObserver.Weather;
+import pepse.world.chunks.ChunkDescriptor;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkListener;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.chunks.ChunkStore;
+import pepse.world.chunks.FruitRespawner;
+import pepse.world.chunks.FruitStates;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
+import pepse.world.events.AvatarEventType;
 import pepse.world.trees.Flora;
+import pepse.world.trees.LeafSway;
 
 
 import java.awt.*;
-import java.awt.event.KeyEvent;
-import java.util.ArrayList;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.BiConsumer;
+import java.util.Map;
 
 /**
  * The PepseGameManager class is responsible for initializing and managing
  * the Pepse game environment.
  * It handles the creation and organization of the game world, including terrain,
  * day-night cycle, sun, avatar, energy bar, forest (flora), and clouds.
- * It also handles dynamic expansion of the game world when the player moves
- * left or right and manages removal of game objects that are no longer visible.
+ * The world is streamed in fixed-width chunks around the avatar by a ChunkManager.
+ * The terrain and trees of every chunk entering the load window are generated on
+ * background threads by a ChunkGenerator and attached once ready, and the game objects
+ * of chunks that drifted far enough out of the window are removed.
+ * When started with -Dpepse.heightfield=true, ground contact is resolved against a
+ * column height array and the terrain blocks are added to a layer without collisions.
+ * Unless started with -Dpepse.bakedTerrain=false, the ground of every chunk is drawn by
+ * a single pre-rasterized image instead of one renderable per block.
+ * When started with -Dpepse.pregenerateScreens=N, the heights and tree layouts of the
+ * world N screens to each side of the spawn point are computed in parallel before the
+ * game starts.
+ * When started with -Dpepse.chunkStore=DIRECTORY, evicted chunks are stored in region
+ * files in that directory and read back when they are loaded again, fruits eaten
+ * included.
+ * When started with -Dpepse.clouds=N, N clouds drift over the sky at different depths
+ * instead of one.
+ * Pressing F3 shows and hides a debug overlay with frame times and object counts.
+ * Live statistics of the world are exposed over JMX as the pepse:type=World MBean,
+ * sampled every STATS_INTERVAL seconds.
+ * When started with -Dpepse.profile=FILE, every phase of every frame is timed and the
+ * statistics of the phases are written to that CSV file when the game exits.
+ * Only the objects of the chunks within a chunk of the camera view are in the game; the
+ * objects of the other loaded chunks are suspended until they come near the view again.
  *
  * @author Eliyahu Peretz & Rom Ilany
  */
@@ -41,8 +82,6 @@ public class PepseGameManager extends GameManager {
 	private static final float DAY_CYCLE = 30;
 	// Constant used for terrain generation
 	private static final int TEN = 10;
-	// Constant Three
-	private static final int THREE = 3;
 	// Half value, used for camera
 	// centering calculations
 	private static final float HALF = 0.5f;
@@ -50,50 +89,87 @@ public class PepseGameManager extends GameManager {
 	private static final int AVATER_X_PLACE = 480;
 	// Size of the energy bar
 	private static final int ENERGY_SIZE = 30;
-	// Tag used to identify ground blocks
-	private static final String BLOCK_TAG = "block";
-	// Y-coordinate height at which clouds are drawn
-	private static final int CLOUD_HEIGHT = 10;
 	// Height of the game screen
-	private static final int SCREEN_HEIGHT = 900;
+	static final int SCREEN_HEIGHT = 900;
 	// Width of the game screen
-	private static final int SCREEN_WIDTH = 1000;
-	// Tag used to identify leaf objects
-	private static final String LEAF_TAG = "leaf";
-	// Tag used to identify root objects
-	private static final String ROOT_TAG = "root";
-	// Tag used to identify fruit objects
-	private static final String FRUIT_TAG = "fruit";
+	static final int SCREEN_WIDTH = 1000;
 	// Title of the game window
 	private static final String TITLE = "pepse";
+	// Width of a single world chunk, ten blocks
+	private static final int CHUNK_WIDTH = Block.SIZE * TEN;
+	// Chunks loaded beyond the half screen on each side of the avatar
+	private static final int EXTRA_LOADED_CHUNKS = 1;
+	// Chunks a loaded chunk may drift out of the load window before it is evicted
+	private static final int EVICTION_MARGIN = 2;
+	// System property enabling the height field ground collision mode
+	private static final String HEIGHTFIELD_PROPERTY = "pepse.heightfield";
+	// System property choosing whether the ground is baked into one image per chunk
+	private static final String BAKED_TERRAIN_PROPERTY = "pepse.bakedTerrain";
+	// The ground is baked unless the property says otherwise
+	private static final String BAKED_TERRAIN_DEFAULT = "true";
+	// Layer of the purely visual ground objects, which collide with nothing
+	private static final int VISUAL_GROUND_LAYER = Layer.STATIC_OBJECTS - 1;
+	// System property choosing how many screens to each side of the spawn are pre-generated
+	private static final String PREGENERATE_SCREENS_PROPERTY = "pepse.pregenerateScreens";
+	// System property naming the directory evicted chunks are stored in
+	private static final String CHUNK_STORE_PROPERTY = "pepse.chunkStore";
+	// Distance out of the camera view within which chunk objects keep being updated
+	private static final int ACTIVITY_MARGIN = CHUNK_WIDTH;
+	// System property choosing how many clouds drift over the sky
+	private static final String CLOUDS_PROPERTY = "pepse.clouds";
+	// Resolution, in seconds, of the game timers
+	private static final float TIMER_TICK = 0.1f;
+	// System property naming the CSV file the frame phase statistics are written to
+	private static final String PROFILE_PROPERTY = "pepse.profile";
+	// Seconds between two samples of the statistics exposed over JMX
+	private static final float STATS_INTERVAL = 1;
 	//fields
 	// Listens for user input
 	private UserInputListener inputListener;
 	// Controls the game window
 	private WindowController windowController;
-	// List of game objects to be removed when
-	// they go out of the screen bounds.
-	private List<GameObject> removeObjects;
-	// Represents the range of terrain
-	// blocks to the left of the current screen view.
-	private Vector2 leftGround;
-	// Represents the range of terrain
-	// blocks currently in view
-	private Vector2 middleGround;
-	// Represents the range of terrain blocks
-	// to the right of the current screen view
-	private Vector2 rightGround;
+	// Every loaded chunk, written back to the chunk store when it is evicted
+	private Map<Integer, ChunkDescriptor> loadedChunks;
+	// The game objects of every loaded chunk and their layers,
+	// removed together when the chunk is evicted.
+	private ChunkObjectRegistry chunkObjects;
+	// Generates the ground of every chunk
+	private Terrain terrain;
+	// Generates the trees of every chunk
+	private Flora flora;
+	// Decides which chunks are loaded around the avatar
+	private ChunkManager chunkManager;
+	// Generates the loaded chunks off the game thread
+	private ChunkGenerator chunkGenerator;
+	// Column heights of the loaded ground, null when landing on blocks
+	private HeightField heightField;
+	// Sways the leaves of every loaded chunk
+	private LeafSway leafSway;
+	// Runs the timers of the game
+	private TimerWheel timers;
+	// Makes the eaten fruits grow back, and keeps them eaten across eviction
+	private FruitRespawner fruitRespawner;
+	// The layer the objects of every kind are added to, by the kind's ordinal
+	private int[] kindLayers;
 	// The player-controlled character.
 	private Avatar avatar;
+	// Shows the frame times and object counts, toggled with F3
+	private DebugOverlay debugOverlay;
+	// Times every phase of every frame, enabled by the profile property
+	private FrameProfiler profiler;
+	// Finishes the work of the game when the JVM exits, unless it was shut down before
+	private Thread shutdownHook;
+	// The particle system of the raindrops
+	private Rain rain;
+	// The live statistics exposed over JMX
+	private PepseStats stats;
 
 	/**
 	 * Constructor initializing the game manager and setting the game title and screen size
 	 */
 	public PepseGameManager() {
 		super(TITLE, new Vector2(SCREEN_WIDTH, SCREEN_HEIGHT));
-		this.removeObjects = new ArrayList<>();
-		this.rightGround = null;
-		this.leftGround = null;
+		this.loadedChunks = new HashMap<>();
 	}
 
 
@@ -119,36 +195,143 @@ public class PepseGameManager extends GameManager {
 		//set the sky background
 		GameObject sky = Sky.create(windowController.getWindowDimensions());
 		gameObjects().addGameObject(sky, Layer.BACKGROUND);
-		//set the ground
-		Terrain terrain = new Terrain(windowController.getWindowDimensions(), TEN);
-		List<Block> groundList = terrain.createInRange(0,
-				(int) windowController.getWindowDimensions().x());
-		setGround(groundList);
-		this.addToRemoveObjectList(groundList);
-		this.middleGround = new Vector2(0,
-				(int) windowController.getWindowDimensions().x());
+		//set the ground and forest generators
+		this.terrain = new Terrain(windowController.getWindowDimensions(), TEN);
+		this.flora = new Flora(this.terrain::groundHeightAt);
+		this.setGroundCollisionMode();
 		// add Night
 		gameObjects().addGameObject(Night.create(windowController.
 				getWindowDimensions(), DAY_CYCLE), Layer.BACKGROUND);
 		//add sun
 		this.addSun();
 		//add avatar
-		this.addAvatar(terrain, imageReader);
+		this.addAvatar(this.terrain, imageReader);
 		//add energy
 		this.addEnergy();
-		//Building forest
-		this.buildForest(terrain);
+		//load the chunks around the avatar
+		this.createChunkManager();
 		//add cloud
 		this.addCloudObject();
+		//add the debug overlay, shown with F3
+		this.debugOverlay = new DebugOverlay(windowController.getWindowDimensions(),
+				inputListener, gameObjects(), this.chunkObjects);
+		gameObjects().addGameObject(this.debugOverlay, Layer.UI);
+		this.createProfiler();
+		this.createStats();
 	}
 
+	//expose the statistics over JMX, sampling them every STATS_INTERVAL seconds
+	private void createStats() {
+		this.stats.register();
+		this.sampleStats();
+		this.timers.schedule(new TimerWheel.Timer() {
+			// sample the statistics and come back after the interval
+			@Override
+			protected void expire() {
+				sampleStats();
+				timers.schedule(this, timers.now() + STATS_INTERVAL);
+			}
+		}, this.timers.now() + STATS_INTERVAL);
+	}
+
+	//sample the statistics that need walking the game state
+	private void sampleStats() {
+		for (int i = 0; i < GameLayers.COUNT; i++) {
+			this.stats.sampleLayer(i, GameLayers.countObjects(gameObjects(), i));
+		}
+		this.stats.sampleLoadedChunks(this.chunkManager.getLoadedMin(),
+				this.chunkManager.getLoadedMax());
+		this.stats.sampleWorld(this.chunkObjects.pendingRecycleCount(), this.rain.dropCount(),
+				this.avatar.getCenter().x());
+	}
+
+	//time the frames when a profile file is given, and finish the game's work when it exits
+	private void createProfiler() {
+		this.profiler = new FrameProfiler(System.getProperty(PROFILE_PROPERTY) != null);
+		this.shutdownHook = new Thread(this::finishWork);
+		Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+	}
+
+	//write the frame profile, finish the pending write-backs and close the chunk store
+	private void finishWork() {
+		String profileFile = System.getProperty(PROFILE_PROPERTY);
+		if (profileFile != null) {
+			this.profiler.writeCsv(Paths.get(profileFile));
+		}
+		this.chunkGenerator.shutdown();
+	}
+
+
+	//choose between colliding with terrain blocks and the height field,
+	//and the layer of every kind of chunk object
+	private void setGroundCollisionMode() {
+		this.kindLayers = new int[ObjectKind.values().length];
+		Arrays.fill(this.kindLayers, Layer.STATIC_OBJECTS);
+		this.kindLayers[ObjectKind.LEAF.ordinal()] = Layer.BACKGROUND;
+		this.kindLayers[ObjectKind.GROUND_IMAGE.ordinal()] = VISUAL_GROUND_LAYER;
+		gameObjects().layers().shouldLayersCollide(VISUAL_GROUND_LAYER, Layer.DEFAULT, false);
+		gameObjects().layers().shouldLayersCollide(VISUAL_GROUND_LAYER,
+				Layer.STATIC_OBJECTS, false);
+		if (Boolean.getBoolean(HEIGHTFIELD_PROPERTY)) {
+			this.heightField = new HeightField(this.terrain, CHUNK_WIDTH);
+			this.kindLayers[ObjectKind.BLOCK.ordinal()] = VISUAL_GROUND_LAYER;
+		}
+	}
 
-	//add the forest
-	private void buildForest(Terrain terrain) {
-		Flora treesPlant = new Flora(terrain::groundHeightAt);
-		List<GameObject> forest = treesPlant.createInRange(0, SCREEN_WIDTH);
-		this.addForestObjects(forest);
-		this.addGameObjectToRemoveGameObjectList(forest);
+	//create the chunk manager and load the chunks around the avatar
+	private void createChunkManager() {
+		this.chunkObjects = new ChunkObjectRegistry(gameObjects());
+		this.leafSway = new LeafSway();
+		this.timers = new TimerWheel(TIMER_TICK);
+		this.fruitRespawner = new FruitRespawner(this.timers, this.chunkObjects);
+		boolean bakeGround = Boolean.parseBoolean(
+				System.getProperty(BAKED_TERRAIN_PROPERTY, BAKED_TERRAIN_DEFAULT));
+		this.chunkGenerator = new ChunkGenerator(this.terrain, this.flora, bakeGround,
+				this.heightField == null);
+		this.stats = new PepseStats(() -> this.chunkManager.trim(this.avatar.getCenter().x()),
+				this::regenerateCurrentChunk);
+		this.chunkGenerator.setStats(this.stats);
+		String storeDirectory = System.getProperty(CHUNK_STORE_PROPERTY);
+		if (storeDirectory != null) {
+			this.chunkGenerator.setStore(new ChunkStore(Paths.get(storeDirectory)));
+			this.fruitRespawner.setStoreBacked(true);
+		}
+		int loadRadius = (int) Math.ceil(windowController.getWindowDimensions().x()
+				* HALF / CHUNK_WIDTH) + EXTRA_LOADED_CHUNKS;
+		this.chunkManager = new ChunkManager(CHUNK_WIDTH, loadRadius, EVICTION_MARGIN,
+				new ChunkListener() {
+					// generate the chunk that entered the load window
+					@Override
+					public void onChunkLoad(int chunk) {
+						loadChunk(chunk);
+					}
+
+					// remove the chunk that left the load window
+					@Override
+					public void onChunkEvict(int chunk) {
+						evictChunk(chunk);
+					}
+				});
+		this.pregenerateWorld();
+		this.avatar.setChunkWidth(CHUNK_WIDTH);
+		this.chunkManager.update(this.avatar.getCenter().x(), 0);
+		this.updateActiveChunks();
+		// the ground under the avatar must exist before the first frame
+		this.chunkGenerator.awaitPending();
+		this.chunkGenerator.drainReady(this::attachChunk);
+	}
+
+	//plan the chunks of the configured span around the spawn point, before the game starts
+	private void pregenerateWorld() {
+		int screens = Integer.getInteger(PREGENERATE_SCREENS_PROPERTY, 0);
+		if (screens <= 0) {
+			return;
+		}
+		int spawnChunk = this.chunkManager.chunkIndexAt(this.avatar.getCenter().x());
+		int spanChunks = (int) Math.ceil(screens * windowController.getWindowDimensions().x()
+				/ CHUNK_WIDTH);
+		this.chunkGenerator.pregenerate(spawnChunk - spanChunks, spawnChunk + spanChunks,
+				CHUNK_WIDTH);
 	}
 
 	//add the sun
@@ -162,7 +345,8 @@ public class PepseGameManager extends GameManager {
 	//add energy
 	private void addEnergy() {
 		Energy energy = new Energy(Vector2.ZERO, new Vector2(ENERGY_SIZE, ENERGY_SIZE), new TextRenderable(
-				Integer.toString(avatar.getEnergy())), avatar::getEnergy);
+				Integer.toString(avatar.getEnergy())));
+		avatar.getEvents().subscribe(AvatarEventType.ENERGY, energy);
 		gameObjects().addGameObject(energy);
 		energy.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 	}
@@ -172,145 +356,151 @@ public class PepseGameManager extends GameManager {
 		this.avatar = new Avatar(new Vector2(AVATER_X_PLACE,
 				terrain.groundHeightAt(AVATER_X_PLACE)), inputListener, imageReader);
 		gameObjects().addGameObject(avatar, Layer.DEFAULT);
+		if (this.heightField != null) {
+			avatar.addComponent(new GroundContact(avatar, this.heightField));
+		}
 		setCamera(new Camera(avatar, windowController.getWindowDimensions()
 				.mult(HALF).subtract(avatar.getTopLeftCorner()),
 				windowController.getWindowDimensions(),
 				windowController.getWindowDimensions()));
 	}
 
-	//add the cloud
+	//add the clouds and the rain falling from them
 	private void addCloudObject() {
-		BiConsumer<GameObject, Integer> removeObject =
-				(GameObject obj, Integer layer) ->
-						gameObjects().removeGameObject(obj, layer);
-		BiConsumer<GameObject, Integer> addObject =
-				(GameObject obj, Integer layer) ->
-						gameObjects().addGameObject(obj, layer);
-		Cloud cloud = new Cloud(removeObject, addObject);
-		avatar.registerObserverToLocation(cloud);
-		this.addCloude(cloud);
-	}
-
-	// adding list of block representing a ground, to the game
-	private void setGround(List<Block> groundList) {
-		//adding each block
-		for (Block ground : groundList) {
-			ground.setTag(BLOCK_TAG);
-			gameObjects().addGameObject(ground, Layer.STATIC_OBJECTS);
-
-		}
-
+		this.rain = new Rain(windowController.getWindowDimensions(), this.terrain::groundHeightAt,
+				() -> camera().getTopLeftCorner());
+		gameObjects().addGameObject(this.rain, Layer.BACKGROUND);
+		Weather weather = new Weather(windowController.getWindowDimensions(), this.rain,
+				Integer.getInteger(CLOUDS_PROPERTY, 1));
+		avatar.registerObserverToLocation(weather);
+		this.addCloude(weather);
 	}
 
-	/* Add forest elements (leaf, root, fruit) to appropriate layer */
-	private void addForestObjects(List<GameObject> gameObjects) {
+	/* Add the objects of a chunk, each to the layer of its kind */
+	private void addChunkObjects(int chunk, List<GameObject> gameObjects) {
 		for (GameObject obj : gameObjects) {
-			if (obj.getTag().equals(LEAF_TAG)) {
-				gameObjects().addGameObject(obj, Layer.BACKGROUND);
-
-			} else {
-				gameObjects().addGameObject(obj, Layer.STATIC_OBJECTS);
-
-			}
+			this.chunkObjects.add(chunk, obj, this.kindLayers[KindedObject.kindOf(obj).ordinal()]);
 		}
 	}
 
-	/* Adds cloud blocks to the background layer */
-	private void addCloude(Cloud cloud) {
-		List<Block> blocks = cloud.create(new Vector2(0, CLOUD_HEIGHT), THREE);
-		for (Block cloudPart : blocks) {
-			gameObjects().addGameObject(cloudPart, Layer.BACKGROUND + 1);
+	/* Adds the clouds to the background layer, the farthest first */
+	private void addCloude(Weather weather) {
+		for (Cloud cloud : weather.getClouds()) {
+			gameObjects().addGameObject(cloud, Layer.BACKGROUND + 1);
 		}
 	}
 
 	@Override
-	/** Called every frame to update game logic */
+	/**
+	 * Called every frame to update game logic. The frame runs in the phases of
+	 * FramePhase, each timed by the profiler.
+	 */
 	public void update(float deltaTime) {
+		this.profiler.beginFrame();
 		super.update(deltaTime);
-		if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)
-		) {
-
-			if (this.rightGround == null) {
-				this.rightGround = new Vector2((int) (this.middleGround.y()),
-						(int) (this.middleGround.y() + SCREEN_WIDTH));
-				this.expandScreen((int) this.rightGround.x(), (int) this.rightGround.y());
-			}
-
+		this.profiler.lap(FramePhase.ENGINE_UPDATE);
+		this.avatar.getEvents().flush();
+		this.profiler.lap(FramePhase.OBSERVER_DISPATCH);
+		this.chunkObjects.recycleRemoved();
+		this.chunkManager.update(this.avatar.getCenter().x(), this.avatar.getVelocity().x());
+		this.stats.runRequests();
+		this.profiler.lap(FramePhase.EVICTION);
+		this.chunkGenerator.drainReady(this::attachChunk);
+		this.updateActiveChunks();
+		this.profiler.lap(FramePhase.WORLD_EXPANSION);
+		this.timers.advance(deltaTime);
+		float cameraX = camera().getTopLeftCorner().x();
+		this.leafSway.update(deltaTime, cameraX,
+				cameraX + windowController.getWindowDimensions().x());
+		this.profiler.lap(FramePhase.ANIMATION);
+		this.debugOverlay.onFrame(deltaTime);
+		this.profiler.lap(FramePhase.HUD);
+		this.profiler.endFrame();
+	}
 
-		}
-		if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+	/* Suspend the objects of the chunks out of the camera view and its margin */
+	private void updateActiveChunks() {
+		float cameraX = camera().getTopLeftCorner().x();
+		this.chunkObjects.setActiveChunks(
+				this.chunkManager.chunkIndexAt(cameraX - ACTIVITY_MARGIN),
+				this.chunkManager.chunkIndexAt(cameraX + windowController.getWindowDimensions().x()
+						+ ACTIVITY_MARGIN));
+	}
 
-			if (this.leftGround == null) {
-				this.leftGround = new Vector2((int) (this.middleGround.x() - SCREEN_WIDTH),
-						(int) (this.middleGround.x()));
-				this.expandScreen((int) this.leftGround.x(), (int) this.leftGround.y());
-			}
+	/* Request the terrain and trees of a chunk that entered the load window */
+	private void loadChunk(int chunk) {
+		this.chunkGenerator.request(chunk, this.chunkManager.chunkMinX(chunk),
+				this.chunkManager.chunkMaxX(chunk));
+	}
 
+	/* Add the objects of a generated chunk to the game, replacing a regenerated chunk */
+	private void attachChunk(ChunkDescriptor descriptor) {
+		if (this.loadedChunks.containsKey(descriptor.getChunk())) {
+			this.evictChunk(descriptor.getChunk());
 		}
-		if (this.avatar.getCenter().x() < this.middleGround.x()) {
-			if (this.rightGround != null) {
-				this.removeObjects(this.rightGround);
-			}
-			this.rightGround = this.middleGround;
-			this.middleGround = this.leftGround;
-			this.leftGround = null;
-		}
-		if (this.middleGround.y() < this.avatar.getCenter().x()) {
-			if (this.leftGround != null) {
-				this.removeObjects(this.leftGround);
-			}
-			this.leftGround = this.middleGround;
-			this.middleGround = this.rightGround;
-			this.rightGround = null;
-
+		this.addChunkObjects(descriptor.getChunk(), descriptor.getGround());
+		if (this.heightField != null) {
+			this.heightField.addChunk(descriptor.getChunk(), descriptor.getColumnTops());
 		}
+		this.addChunkObjects(descriptor.getChunk(), descriptor.getForest());
+		this.leafSway.addAll(descriptor.getForest());
+		this.fruitRespawner.attach(descriptor.getChunk(), descriptor.getForest(),
+				descriptor.getData().getFruitStates());
+		this.loadedChunks.put(descriptor.getChunk(), descriptor);
 	}
 
-	/* Track blocks to remove later when they go out of screen */
-	private void addToRemoveObjectList(List<Block> list) {
-		for (Block obj : list) {
-			this.removeObjects.add(obj);
-		}
+	/* Generate the chunk under the avatar again from a new plan, keeping it until replaced */
+	private void regenerateCurrentChunk() {
+		int chunk = this.chunkManager.chunkIndexAt(this.avatar.getCenter().x());
+		this.chunkGenerator.regenerate(chunk, this.chunkManager.chunkMinX(chunk),
+				this.chunkManager.chunkMaxX(chunk));
 	}
 
-	/* Add general game objects (leaves, trees, fruit) to removal list */
-	private void addGameObjectToRemoveGameObjectList(List<GameObject> list) {
-		for (GameObject obj : list) {
-			this.removeObjects.add(obj);
+	/* Remove every object generated for a chunk that left the load window */
+	private void evictChunk(int chunk) {
+		ChunkEvictedEvent event = new ChunkEvictedEvent();
+		event.begin();
+		this.chunkGenerator.cancel(chunk);
+		if (this.heightField != null) {
+			this.heightField.removeChunk(chunk);
 		}
+		ChunkDescriptor descriptor = this.loadedChunks.remove(chunk);
+		if (descriptor != null) {
+			this.leafSway.removeAll(descriptor.getForest());
+			FruitStates fruits = this.fruitRespawner.detach(chunk);
+			this.chunkGenerator.writeBack(descriptor.getData().withFruitStates(fruits));
+		}
+		int removed = this.chunkObjects.removeChunk(chunk);
+		this.stats.recordEviction(removed);
+		event.finish(chunk, removed);
 	}
 
-	/* Remove objects that are in a specified range */
-	private void removeObjects(Vector2 vec) {
-		Boolean inRange;
-		for (GameObject obj : this.removeObjects) {
-			inRange = (vec.x() <= obj.getCenter().x()) && (obj.getCenter().x() <= vec.y());
-			if (obj.getTag().equals(BLOCK_TAG) && inRange) {
-				gameObjects().removeGameObject(obj, Layer.STATIC_OBJECTS);
+	/**
+	 * Finishes the work of the game before the JVM exits, in place of its shutdown hook,
+	 * and takes its statistics off JMX. Lets a simulation run games one after another
+	 * without leaving their worker threads, hooks and MBeans behind.
+	 */
+	void shutdown() {
+		Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+		this.finishWork();
+		this.stats.unregister();
+	}
 
-			}
-			if (obj.getTag().equals(LEAF_TAG) && inRange) {
-				gameObjects().removeGameObject(obj, Layer.BACKGROUND);
-			}
-			if (obj.getTag().equals(ROOT_TAG) && inRange) {
-				gameObjects().removeGameObject(obj, Layer.STATIC_OBJECTS);
-			}
-			if (obj.getTag().equals(FRUIT_TAG) && inRange) {
-				gameObjects().removeGameObject(obj, Layer.STATIC_OBJECTS);
-			}
-		}
+	/**
+	 * Returns the live statistics of the game, as exposed over JMX.
+	 *
+	 * @return the statistics of the game
+	 */
+	PepseStats getStats() {
+		return this.stats;
 	}
 
-	/* Expand the world by adding terrain and trees in new range */
-	private void expandScreen(int minX, int maxX) {
-		Terrain terrain = new Terrain(windowController.getWindowDimensions(), TEN);
-		List<Block> groundList = terrain.createInRange(minX, maxX);
-		setGround(groundList);
-		this.addToRemoveObjectList(groundList);
-		Flora treesPlant = new Flora(terrain::groundHeightAt);
-		List<GameObject> forest = treesPlant.createInRange(minX, maxX);
-		this.addForestObjects(forest);
-		this.addGameObjectToRemoveGameObjectList(forest);
+	/**
+	 * Blocks until every requested chunk was generated, so the next frame attaches
+	 * them. Lets a simulation run in lockstep with the generator threads.
+	 */
+	void awaitGeneration() {
+		this.chunkGenerator.awaitPending();
 	}
 
 	/**
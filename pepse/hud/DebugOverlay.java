@@ -0,0 +1,233 @@
+package pepse.hud;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.components.CoordinateSpace;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.GameLayers;
+import pepse.world.Block;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.Leaf;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * A debug overlay showing how the game performs: frames per second, the median and 99th
+ * percentile frame time, the number of live objects in every layer, the loaded chunks,
+ * the pooled objects, and the bytes the game thread allocates per frame.
+ * <p>
+ * The overlay is toggled with TOGGLE_KEY and starts hidden. The frame times of the last
+ * FRAME_WINDOW frames are always recorded, which costs a store per frame; everything
+ * else is gathered, and the text rebuilt, only every REFRESH_INTERVAL seconds while the
+ * overlay is shown.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class DebugOverlay extends GameObject {
+	// The key showing and hiding the overlay
+	private static final int TOGGLE_KEY = KeyEvent.VK_F3;
+	// Number of recent frames the frame time statistics are computed over
+	private static final int FRAME_WINDOW = 256;
+	// Seconds between two refreshes of the shown text
+	private static final float REFRESH_INTERVAL = 0.5f;
+	// Milliseconds in a second
+	private static final float MILLIS = 1000;
+	// Percentile of the median frame time
+	private static final float P50 = 0.5f;
+	// Percentile of the slow frame time
+	private static final float P99 = 0.99f;
+	// Texts of the lines of the overlay
+	private static final String FPS_LINE = "fps %.0f  frame p50 %.1f ms  p99 %.1f ms";
+	private static final String LAYER_LINE = "%s: %d objects";
+	private static final String CHUNK_LINE = "chunks %d  objects %d  suspended %d";
+	private static final String POOL_LINE = "pooled blocks %d  leaves %d  fruits %d";
+	private static final String ALLOCATION_LINE = "allocated %d bytes/frame";
+	private static final String NO_ALLOCATION_LINE = "allocated n/a";
+	// Size of the font of the overlay
+	private static final int FONT_SIZE = 14;
+	// Distance between the tops of two lines, and margin around the text, in pixels
+	private static final int LINE_HEIGHT = 18;
+	private static final int MARGIN = 6;
+	// Colors of the overlay
+	private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+	private static final Color TEXT = Color.WHITE;
+	// Font of the overlay
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, FONT_SIZE);
+
+	// Shows and hides the overlay
+	private final UserInputListener inputListener;
+	// The objects counted by layer
+	private final GameObjectCollection gameObjects;
+	// The objects of the loaded chunks
+	private final ChunkObjectRegistry chunkObjects;
+	// Measures the bytes allocated by the game thread, null if the JVM cannot
+	private final com.sun.management.ThreadMXBean allocations;
+	// The times of the recent frames in seconds, a ring
+	private final float[] frameTimes;
+	// The recent frame times, sorted when the text is refreshed
+	private final float[] sortedFrameTimes;
+	// The lines shown by the overlay
+	private final String[] lines;
+	// Number of frames recorded, up to FRAME_WINDOW
+	private int frameCount;
+	// The slot of the next frame time in the ring
+	private int nextFrame;
+	// Whether the overlay is shown
+	private boolean shown;
+	// Whether the toggle key was pressed in the last frame
+	private boolean togglePressed;
+	// Seconds since the text was refreshed
+	private float sinceRefresh;
+	// Frames since the text was refreshed
+	private int framesSinceRefresh;
+	// Bytes the game thread had allocated when the text was refreshed
+	private long allocatedAtRefresh;
+
+	/**
+	 * Constructor for DebugOverlay, hidden.
+	 *
+	 * @param windowDimensions the dimensions of the game window
+	 * @param inputListener    reads the key toggling the overlay
+	 * @param gameObjects      the objects of the game, counted by layer
+	 * @param chunkObjects     the objects of the loaded chunks
+	 */
+	public DebugOverlay(Vector2 windowDimensions, UserInputListener inputListener,
+						GameObjectCollection gameObjects, ChunkObjectRegistry chunkObjects) {
+		super(Vector2.ZERO, windowDimensions, null);
+		this.inputListener = inputListener;
+		this.gameObjects = gameObjects;
+		this.chunkObjects = chunkObjects;
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		this.allocations = threads instanceof com.sun.management.ThreadMXBean bean
+				&& bean.isThreadAllocatedMemorySupported() ? bean : null;
+		this.frameTimes = new float[FRAME_WINDOW];
+		this.sortedFrameTimes = new float[FRAME_WINDOW];
+		this.lines = new String[GameLayers.COUNT + 3];
+		this.shown = false;
+		this.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+	}
+
+	/**
+	 * Records the frame time, toggles the overlay when its key is pressed, and refreshes
+	 * the shown text once in a while. Called by the game manager once every frame, after
+	 * the world was updated, rather than by the engine with the other objects.
+	 *
+	 * @param deltaTime The time elapsed, in seconds, since the last frame.
+	 */
+	public void onFrame(float deltaTime) {
+		this.frameTimes[this.nextFrame] = deltaTime;
+		this.nextFrame = (this.nextFrame + 1) % FRAME_WINDOW;
+		this.frameCount = Math.min(this.frameCount + 1, FRAME_WINDOW);
+		boolean pressed = this.inputListener.isKeyPressed(TOGGLE_KEY);
+		if (pressed && !this.togglePressed) {
+			this.setShown(!this.shown);
+		}
+		this.togglePressed = pressed;
+		if (!this.shown) {
+			return;
+		}
+		this.sinceRefresh += deltaTime;
+		this.framesSinceRefresh++;
+		if (this.sinceRefresh >= REFRESH_INTERVAL) {
+			this.refresh();
+		}
+	}
+
+	/*
+	 * Shows or hides the overlay, restarting the allocation measurement when it is shown.
+	 */
+	private void setShown(boolean show) {
+		this.shown = show;
+		this.renderer().setRenderable(show ? new LinesRenderable() : null);
+		if (show) {
+			this.allocatedAtRefresh = this.allocatedBytes();
+			this.sinceRefresh = 0;
+			this.framesSinceRefresh = 0;
+			this.refresh();
+		}
+	}
+
+	/*
+	 * Rebuilds the lines of the overlay from the current statistics.
+	 */
+	private void refresh() {
+		System.arraycopy(this.frameTimes, 0, this.sortedFrameTimes, 0, this.frameCount);
+		Arrays.sort(this.sortedFrameTimes, 0, this.frameCount);
+		float total = 0;
+		for (int i = 0; i < this.frameCount; i++) {
+			total += this.sortedFrameTimes[i];
+		}
+		float fps = total > 0 ? this.frameCount / total : 0;
+		int line = 0;
+		this.lines[line++] = String.format(FPS_LINE, fps,
+				this.percentile(P50) * MILLIS, this.percentile(P99) * MILLIS);
+		for (int i = 0; i < GameLayers.COUNT; i++) {
+			this.lines[line++] = String.format(LAYER_LINE, GameLayers.nameOf(i),
+					GameLayers.countObjects(this.gameObjects, i));
+		}
+		this.lines[line++] = String.format(CHUNK_LINE, this.chunkObjects.chunkCount(),
+				this.chunkObjects.objectCount(), this.chunkObjects.suspendedCount());
+		this.lines[line++] = String.format(POOL_LINE, Block.pooledCount(), Leaf.pooledCount(),
+				Fruit.pooledCount());
+		long allocated = this.allocatedBytes();
+		this.lines[line] = allocated < 0 ? NO_ALLOCATION_LINE : String.format(ALLOCATION_LINE,
+				(allocated - this.allocatedAtRefresh) / Math.max(1, this.framesSinceRefresh));
+		this.allocatedAtRefresh = allocated;
+		this.sinceRefresh = 0;
+		this.framesSinceRefresh = 0;
+	}
+
+	/*
+	 * Returns the recent frame time below which the given part of the frames took.
+	 */
+	private float percentile(float part) {
+		if (this.frameCount == 0) {
+			return 0;
+		}
+		return this.sortedFrameTimes[Math.min(this.frameCount - 1, (int) (part * this.frameCount))];
+	}
+
+	/*
+	 * Returns the bytes the game thread allocated so far, or -1 if it cannot be measured.
+	 */
+	private long allocatedBytes() {
+		if (this.allocations == null) {
+			return -1;
+		}
+		return this.allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/*
+	 * Draws the lines of the overlay over a dark box.
+	 */
+	private final class LinesRenderable implements Renderable {
+		@Override
+		/*
+		 * Draws every line of the overlay from the top-left corner of the window.
+		 */
+		public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+						   double degreesCounterClockwise, boolean isFlippedHorizontally,
+						   boolean isFlippedVertically, double opaqueness) {
+			int left = Math.round(topLeftCorner.x());
+			int top = Math.round(topLeftCorner.y()) + LINE_HEIGHT * 2;
+			g.setFont(FONT);
+			int width = 0;
+			for (String line : lines) {
+				width = Math.max(width, g.getFontMetrics().stringWidth(line));
+			}
+			g.setColor(BACKGROUND);
+			g.fillRect(left, top, width + MARGIN * 2, lines.length * LINE_HEIGHT + MARGIN * 2);
+			g.setColor(TEXT);
+			for (int i = 0; i < lines.length; i++) {
+				g.drawString(lines[i], left + MARGIN, top + MARGIN + (i + 1) * LINE_HEIGHT - MARGIN);
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package pepse.hud;
+
+/**
+ * Texts shown by the HUD, cached so showing a value that was shown before allocates
+ * nothing.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class HudText {
+	// Suffix of a percentage
+	private static final String PERCENT = "%";
+	// Largest percentage kept in the cache
+	private static final int MAX_PERCENT = 100;
+	// The text of every percentage from 0 to MAX_PERCENT
+	private static final String[] PERCENTS = createPercents();
+
+	/*
+	 * No instances, only static texts.
+	 */
+	private HudText() {
+	}
+
+	/*
+	 * Creates the text of every cached percentage.
+	 */
+	private static String[] createPercents() {
+		String[] texts = new String[MAX_PERCENT + 1];
+		for (int i = 0; i <= MAX_PERCENT; i++) {
+			texts[i] = i + PERCENT;
+		}
+		return texts;
+	}
+
+	/**
+	 * Returns the text of a percentage, such as "42%".
+	 *
+	 * @param value the percentage
+	 * @return the shared text of the percentage if it is between 0 and 100, a new one
+	 * otherwise
+	 */
+	public static String percent(int value) {
+		if (value >= 0 && value <= MAX_PERCENT) {
+			return PERCENTS[value];
+		}
+		return value + PERCENT;
+	}
+}
@@ -0,0 +1,40 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event covering the eviction of a chunk on the game thread.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@Name("pepse.ChunkEvicted")
+@Label("Chunk Evicted")
+@Category({"Pepse", "World"})
+@Description("The objects of a chunk that left the load window were removed")
+public class ChunkEvictedEvent extends Event {
+	// The world index of the chunk
+	@Label("Chunk")
+	private int chunk;
+	// Number of objects removed with the chunk
+	@Label("Objects Removed")
+	private int objectCount;
+
+	/**
+	 * Ends the event and commits it, if it is recorded.
+	 *
+	 * @param chunk       the world index of the chunk
+	 * @param objectCount the number of objects removed with the chunk
+	 */
+	public void finish(int chunk, int objectCount) {
+		this.end();
+		if (this.shouldCommit()) {
+			this.chunk = chunk;
+			this.objectCount = objectCount;
+			this.commit();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event covering the generation of the objects of a chunk, on the
+ * generator thread that built them.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@Name("pepse.ChunkGenerated")
+@Label("Chunk Generated")
+@Category({"Pepse", "World"})
+@Description("The terrain and trees of a chunk were generated")
+public class ChunkGeneratedEvent extends Event {
+	// The world index of the chunk
+	@Label("Chunk")
+	private int chunk;
+	// The minimal x-coordinate (inclusive) of the chunk
+	@Label("Min X")
+	private int minX;
+	// The maximal x-coordinate (exclusive) of the chunk
+	@Label("Max X")
+	private int maxX;
+	// Number of objects generated for the chunk
+	@Label("Objects")
+	private int objectCount;
+
+	/**
+	 * Ends the event and commits it, if it is recorded.
+	 *
+	 * @param chunk       the world index of the chunk
+	 * @param minX        the minimal x-coordinate (inclusive) of the chunk
+	 * @param maxX        the maximal x-coordinate (exclusive) of the chunk
+	 * @param objectCount the number of objects generated for the chunk
+	 */
+	public void finish(int chunk, int minX, int maxX, int objectCount) {
+		this.end();
+		if (this.shouldCommit()) {
+			this.chunk = chunk;
+			this.minX = minX;
+			this.maxX = maxX;
+			this.objectCount = objectCount;
+			this.commit();
+		}
+	}
+}
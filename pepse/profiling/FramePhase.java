@@ -0,0 +1,33 @@
+package pepse.profiling;
+
+/**
+ * The phases of a frame timed by the FrameProfiler, in the order they run.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public enum FramePhase {
+	/**
+	 * The engine updating, colliding and moving every game object.
+	 */
+	ENGINE_UPDATE,
+	/**
+	 * Delivering the events of the avatar to their listeners.
+	 */
+	OBSERVER_DISPATCH,
+	/**
+	 * Recycling removed objects, and loading and evicting chunks around the avatar.
+	 */
+	EVICTION,
+	/**
+	 * Attaching the generated chunks and suspending the chunks out of view.
+	 */
+	WORLD_EXPANSION,
+	/**
+	 * Running the game timers and swaying the leaves.
+	 */
+	ANIMATION,
+	/**
+	 * Refreshing the debug overlay.
+	 */
+	HUD
+}
@@ -0,0 +1,141 @@
+package pepse.profiling;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Times every phase of every frame into a LatencyHistogram per phase, and one for the
+ * whole frame.
+ * <p>
+ * A frame starts with beginFrame, every phase ends with lap, which records the time since
+ * the previous mark, and endFrame records the whole frame. When the profiler is disabled
+ * every one of these calls is a single branch. The histograms can be written to a CSV
+ * file, one line per phase with its count, mean, p50, p90, p99 and maximum in
+ * microseconds.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class FrameProfiler {
+	// Every phase, by ordinal
+	private static final FramePhase[] PHASES = FramePhase.values();
+	// Name of the line of the whole frame
+	private static final String FRAME = "FRAME";
+	// Header of the CSV file
+	private static final String CSV_HEADER = "phase,count,mean_us,p50_us,p90_us,p99_us,max_us";
+	// Format of a line of the CSV file
+	private static final String CSV_LINE = "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f";
+	// Nanoseconds in a microsecond
+	private static final double MICROS = 1000;
+	// Percentiles written to the CSV file
+	private static final double P50 = 0.5;
+	private static final double P90 = 0.9;
+	private static final double P99 = 0.99;
+
+	// Whether frames are timed
+	private final boolean enabled;
+	// The durations of every phase
+	private final LatencyHistogram[] phases;
+	// The durations of whole frames
+	private final LatencyHistogram frames;
+	// The time the current frame started at
+	private long frameStart;
+	// The time the last phase ended at
+	private long mark;
+
+	/**
+	 * Constructor for FrameProfiler.
+	 *
+	 * @param enabled whether frames are timed; a disabled profiler records nothing
+	 */
+	public FrameProfiler(boolean enabled) {
+		this.enabled = enabled;
+		this.phases = new LatencyHistogram[PHASES.length];
+		for (int i = 0; i < PHASES.length; i++) {
+			this.phases[i] = new LatencyHistogram();
+		}
+		this.frames = new LatencyHistogram();
+	}
+
+	/**
+	 * Checks whether frames are timed.
+	 *
+	 * @return true if the profiler is enabled
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Marks the start of a frame and of its first phase.
+	 */
+	public void beginFrame() {
+		if (this.enabled) {
+			this.frameStart = System.nanoTime();
+			this.mark = this.frameStart;
+		}
+	}
+
+	/**
+	 * Records the time since the previous phase ended, or the frame began, as the time of
+	 * a phase.
+	 *
+	 * @param phase the phase that just ended
+	 */
+	public void lap(FramePhase phase) {
+		if (this.enabled) {
+			long now = System.nanoTime();
+			this.phases[phase.ordinal()].record(now - this.mark);
+			this.mark = now;
+		}
+	}
+
+	/**
+	 * Records the time since the frame began as the time of the whole frame.
+	 */
+	public void endFrame() {
+		if (this.enabled) {
+			this.frames.record(System.nanoTime() - this.frameStart);
+		}
+	}
+
+	/**
+	 * Returns the durations of a phase.
+	 *
+	 * @param phase the phase
+	 * @return the histogram of the phase
+	 */
+	public LatencyHistogram histogramOf(FramePhase phase) {
+		return this.phases[phase.ordinal()];
+	}
+
+	/**
+	 * Writes the statistics of every phase and of the whole frame to a CSV file.
+	 *
+	 * @param file the file to write, replaced if it exists
+	 */
+	public void writeCsv(Path file) {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+			out.println(CSV_HEADER);
+			for (FramePhase phase : PHASES) {
+				writeLine(out, phase.name(), this.phases[phase.ordinal()]);
+			}
+			writeLine(out, FRAME, this.frames);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Writes the statistics of a histogram as a line of the CSV file.
+	 */
+	private static void writeLine(PrintWriter out, String name, LatencyHistogram histogram) {
+		out.println(String.format(Locale.ROOT, CSV_LINE, name, histogram.count(),
+				histogram.mean() / MICROS, histogram.percentile(P50) / MICROS,
+				histogram.percentile(P90) / MICROS, histogram.percentile(P99) / MICROS,
+				histogram.max() / MICROS));
+	}
+}
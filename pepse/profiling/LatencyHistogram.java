@@ -0,0 +1,138 @@
+package pepse.profiling;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets: every power of two
+ * is split into SUB_BUCKETS equal buckets, so any recorded duration is known within
+ * 1 / SUB_BUCKETS of its value, from a nanosecond up to minutes, in a few hundred
+ * counters.
+ * <p>
+ * Recording is a few arithmetic operations and an increment, and never allocates. The
+ * exact maximum is kept besides the buckets. A histogram is written by a single thread.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class LatencyHistogram {
+	// Number of bits of the index of a bucket within a power of two
+	private static final int SUB_BUCKET_BITS = 4;
+	// Number of buckets every power of two is split into
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// Mask of the index of a bucket within a power of two
+	private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+	// The largest recorded duration, longer durations are recorded as it
+	private static final long MAX_VALUE = (1L << 40) - 1;
+	// Number of buckets of the histogram
+	private static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+	// Number of durations recorded in every bucket
+	private final long[] counts;
+	// Number of recorded durations
+	private long count;
+	// Sum of the recorded durations
+	private long total;
+	// The longest recorded duration
+	private long max;
+
+	/**
+	 * Constructor for an empty LatencyHistogram.
+	 */
+	public LatencyHistogram() {
+		this.counts = new long[BUCKETS];
+	}
+
+	/*
+	 * Returns the bucket of a duration.
+	 */
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/*
+	 * Returns the largest duration that falls in a bucket.
+	 */
+	private static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+		return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+		this.counts[bucketOf(value)]++;
+		this.count++;
+		this.total += value;
+		this.max = Math.max(this.max, value);
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return the count of the histogram
+	 */
+	public long count() {
+		return this.count;
+	}
+
+	/**
+	 * Returns the mean of the recorded durations.
+	 *
+	 * @return the mean duration in nanoseconds, 0 if nothing was recorded
+	 */
+	public double mean() {
+		return this.count == 0 ? 0 : (double) this.total / this.count;
+	}
+
+	/**
+	 * Returns the longest recorded duration.
+	 *
+	 * @return the maximal duration in nanoseconds, 0 if nothing was recorded
+	 */
+	public long max() {
+		return this.max;
+	}
+
+	/**
+	 * Returns the duration the given part of the recorded durations did not exceed.
+	 *
+	 * @param part the part of the durations, between 0 and 1, such as 0.99
+	 * @return the percentile in nanoseconds, at most the maximum, 0 if nothing was recorded
+	 */
+	public long percentile(double part) {
+		if (this.count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(part * this.count));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += this.counts[bucket];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(bucket), this.max);
+			}
+		}
+		return this.max;
+	}
+
+	/**
+	 * Forgets every recorded duration.
+	 */
+	public void reset() {
+		Arrays.fill(this.counts, 0);
+		this.count = 0;
+		this.total = 0;
+		this.max = 0;
+	}
+}
@@ -0,0 +1,308 @@
+package pepse.profiling;
+
+import pepse.util.GameLayers;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The live statistics of the game, exposed over JMX.
+ * <p>
+ * Counters are plain atomics incremented where the counted work already happens, on
+ * the game thread or on the chunk generator threads. Values that would take walking
+ * the game objects, such as the objects of every layer, are sampled by the game thread
+ * once in a while and only read by JMX. The operations never touch the game from the
+ * JMX thread: they are queued, and run by the game thread in runRequests.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class PepseStats implements PepseStatsMXBean {
+	// Name the statistics are registered under
+	private static final String OBJECT_NAME = "pepse:type=World";
+	// Nanoseconds in a millisecond
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	// Evicts the chunks outside the load window, on the game thread
+	private final Runnable forceEviction;
+	// Regenerates the chunk under the avatar, on the game thread
+	private final Runnable regenerate;
+	// Operations requested over JMX, waiting for the game thread
+	private final Queue<Runnable> requests;
+	// The sampled object count of every layer, by layer index
+	private final AtomicIntegerArray layerObjects;
+	// The sampled loaded chunk range
+	private final AtomicInteger loadedChunkMin;
+	private final AtomicInteger loadedChunkMax;
+	// Counters of the generated chunks and objects, and the time spent generating them
+	private final AtomicLong generatedChunks;
+	private final AtomicLong generatedObjects;
+	private final AtomicLong generationNanos;
+	// Counter of the objects evicted with their chunks
+	private final AtomicLong evictedObjects;
+	// The sampled number of removed objects not recycled yet
+	private final AtomicInteger pendingRemoved;
+	// The sampled number of live drops
+	private final AtomicInteger activeDrops;
+	// The sampled x-coordinate of the avatar, as float bits
+	private final AtomicInteger avatarXBits;
+
+	/**
+	 * Constructor for PepseStats.
+	 *
+	 * @param forceEviction evicts the chunks outside the load window, run on the game thread
+	 * @param regenerate    regenerates the chunk under the avatar, run on the game thread
+	 */
+	public PepseStats(Runnable forceEviction, Runnable regenerate) {
+		this.forceEviction = forceEviction;
+		this.regenerate = regenerate;
+		this.requests = new ConcurrentLinkedQueue<>();
+		this.layerObjects = new AtomicIntegerArray(GameLayers.COUNT);
+		this.loadedChunkMin = new AtomicInteger();
+		this.loadedChunkMax = new AtomicInteger();
+		this.generatedChunks = new AtomicLong();
+		this.generatedObjects = new AtomicLong();
+		this.generationNanos = new AtomicLong();
+		this.evictedObjects = new AtomicLong();
+		this.pendingRemoved = new AtomicInteger();
+		this.activeDrops = new AtomicInteger();
+		this.avatarXBits = new AtomicInteger();
+	}
+
+	/**
+	 * Registers the statistics with the platform MBean server, replacing the statistics
+	 * of an earlier game in the same JVM.
+	 *
+	 * @throws IllegalStateException if the statistics cannot be registered
+	 */
+	public void register() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Removes the statistics from the platform MBean server, if they are registered.
+	 *
+	 * @throws IllegalStateException if the statistics cannot be unregistered
+	 */
+	public void unregister() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Counts a generated chunk. Called by the thread that generated it.
+	 *
+	 * @param objectCount the number of objects generated for the chunk
+	 * @param nanos       the time the generation took, in nanoseconds
+	 */
+	public void recordGeneration(int objectCount, long nanos) {
+		this.generatedChunks.incrementAndGet();
+		this.generatedObjects.addAndGet(objectCount);
+		this.generationNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * Counts the objects of an evicted chunk, or of a generated chunk that was discarded
+	 * without being attached.
+	 *
+	 * @param objectCount the number of objects removed with the chunk
+	 */
+	public void recordEviction(int objectCount) {
+		this.evictedObjects.addAndGet(objectCount);
+	}
+
+	/**
+	 * Samples the object count of a layer.
+	 *
+	 * @param index       the index of the layer in GameLayers
+	 * @param objectCount the number of objects in the layer
+	 */
+	public void sampleLayer(int index, int objectCount) {
+		this.layerObjects.set(index, objectCount);
+	}
+
+	/**
+	 * Samples the loaded chunk range.
+	 *
+	 * @param min the leftmost loaded chunk index
+	 * @param max the rightmost loaded chunk index
+	 */
+	public void sampleLoadedChunks(int min, int max) {
+		this.loadedChunkMin.set(min);
+		this.loadedChunkMax.set(max);
+	}
+
+	/**
+	 * Samples the state of the world.
+	 *
+	 * @param pendingRemoved the number of removed objects not recycled yet
+	 * @param activeDrops    the number of live drops
+	 * @param avatarX        the x-coordinate of the center of the avatar
+	 */
+	public void sampleWorld(int pendingRemoved, int activeDrops, float avatarX) {
+		this.pendingRemoved.set(pendingRemoved);
+		this.activeDrops.set(activeDrops);
+		this.avatarXBits.set(Float.floatToIntBits(avatarX));
+	}
+
+	/**
+	 * Runs the operations requested over JMX since the last call. Called by the game
+	 * thread once every frame.
+	 */
+	public void runRequests() {
+		Runnable request;
+		while ((request = this.requests.poll()) != null) {
+			request.run();
+		}
+	}
+
+	@Override
+	/**
+	 * Returns the number of live objects in every layer, as last sampled.
+	 *
+	 * @return the object count of every layer, by layer name
+	 */
+	public Map<String, Integer> getLayerObjectCounts() {
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (int i = 0; i < GameLayers.COUNT; i++) {
+			counts.put(GameLayers.nameOf(i), this.layerObjects.get(i));
+		}
+		return counts;
+	}
+
+	@Override
+	/**
+	 * Returns the index of the leftmost loaded chunk, as last sampled.
+	 *
+	 * @return the leftmost loaded chunk index
+	 */
+	public int getLoadedChunkMin() {
+		return this.loadedChunkMin.get();
+	}
+
+	@Override
+	/**
+	 * Returns the index of the rightmost loaded chunk, as last sampled.
+	 *
+	 * @return the rightmost loaded chunk index
+	 */
+	public int getLoadedChunkMax() {
+		return this.loadedChunkMax.get();
+	}
+
+	@Override
+	/**
+	 * Returns the number of chunks generated since the game started.
+	 *
+	 * @return the number of generated chunks
+	 */
+	public long getGeneratedChunks() {
+		return this.generatedChunks.get();
+	}
+
+	@Override
+	/**
+	 * Returns the number of objects generated since the game started.
+	 *
+	 * @return the number of generated objects
+	 */
+	public long getGeneratedObjects() {
+		return this.generatedObjects.get();
+	}
+
+	@Override
+	/**
+	 * Returns the number of objects evicted with their chunks since the game started,
+	 * including those of generated chunks that were discarded without being attached.
+	 *
+	 * @return the number of evicted objects
+	 */
+	public long getEvictedObjects() {
+		return this.evictedObjects.get();
+	}
+
+	@Override
+	/**
+	 * Returns the number of objects removed with their chunks and waiting to be
+	 * recycled, as last sampled.
+	 *
+	 * @return the number of removed objects not recycled yet
+	 */
+	public int getPendingRemovedObjects() {
+		return this.pendingRemoved.get();
+	}
+
+	@Override
+	/**
+	 * Returns the number of raindrops falling, as last sampled.
+	 *
+	 * @return an upper bound on the number of live drops
+	 */
+	public int getActiveDrops() {
+		return this.activeDrops.get();
+	}
+
+	@Override
+	/**
+	 * Returns the mean time it took to generate a chunk.
+	 *
+	 * @return the mean generation time in milliseconds, 0 before any chunk was generated
+	 */
+	public double getAverageGenerationMillis() {
+		long chunks = this.generatedChunks.get();
+		return chunks == 0 ? 0 : this.generationNanos.get() / NANOS_PER_MILLI / chunks;
+	}
+
+	@Override
+	/**
+	 * Returns the x-coordinate of the avatar in the world, as last sampled.
+	 *
+	 * @return the x-coordinate of the center of the avatar
+	 */
+	public float getAvatarX() {
+		return Float.intBitsToFloat(this.avatarXBits.get());
+	}
+
+	@Override
+	/**
+	 * Evicts every loaded chunk outside the load window at the next frame.
+	 */
+	public void forceEviction() {
+		this.requests.add(this.forceEviction);
+	}
+
+	@Override
+	/**
+	 * Generates the chunk under the avatar again at the next frame, from a new plan rather
+	 * than from the chunk store or the pregenerated span, so the whole generation path
+	 * runs. The loaded chunk stays in the game until the new one is built, then is evicted
+	 * and replaced by it, with its eaten fruits grown back.
+	 */
+	public void regenerateCurrentChunk() {
+		this.requests.add(this.regenerate);
+	}
+}
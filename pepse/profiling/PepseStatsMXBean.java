@@ -0,0 +1,97 @@
+package pepse.profiling;
+
+import java.util.Map;
+
+/**
+ * The management interface of the live statistics of the game, registered as the
+ * "pepse" MBean so a running session can be watched from JConsole or VisualVM.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public interface PepseStatsMXBean {
+	/**
+	 * Returns the number of live objects in every layer, as last sampled.
+	 *
+	 * @return the object count of every layer, by layer name
+	 */
+	Map<String, Integer> getLayerObjectCounts();
+
+	/**
+	 * Returns the index of the leftmost loaded chunk, as last sampled.
+	 *
+	 * @return the leftmost loaded chunk index
+	 */
+	int getLoadedChunkMin();
+
+	/**
+	 * Returns the index of the rightmost loaded chunk, as last sampled.
+	 *
+	 * @return the rightmost loaded chunk index
+	 */
+	int getLoadedChunkMax();
+
+	/**
+	 * Returns the number of chunks generated since the game started.
+	 *
+	 * @return the number of generated chunks
+	 */
+	long getGeneratedChunks();
+
+	/**
+	 * Returns the number of objects generated since the game started.
+	 *
+	 * @return the number of generated objects
+	 */
+	long getGeneratedObjects();
+
+	/**
+	 * Returns the number of objects evicted with their chunks since the game started,
+	 * including those of generated chunks that were discarded without being attached.
+	 *
+	 * @return the number of evicted objects
+	 */
+	long getEvictedObjects();
+
+	/**
+	 * Returns the number of objects removed with their chunks and waiting to be
+	 * recycled, as last sampled.
+	 *
+	 * @return the number of removed objects not recycled yet
+	 */
+	int getPendingRemovedObjects();
+
+	/**
+	 * Returns the number of raindrops falling, as last sampled.
+	 *
+	 * @return an upper bound on the number of live drops
+	 */
+	int getActiveDrops();
+
+	/**
+	 * Returns the mean time it took to generate a chunk.
+	 *
+	 * @return the mean generation time in milliseconds, 0 before any chunk was generated
+	 */
+	double getAverageGenerationMillis();
+
+	/**
+	 * Returns the x-coordinate of the avatar in the world, as last sampled.
+	 *
+	 * @return the x-coordinate of the center of the avatar
+	 */
+	float getAvatarX();
+
+	/**
+	 * Evicts every loaded chunk outside the load window at the next frame, without
+	 * waiting for it to drift away.
+	 */
+	void forceEviction();
+
+	/**
+	 * Generates the chunk under the avatar again at the next frame, from a new plan rather
+	 * than from the chunk store or the pregenerated span, so the whole generation path
+	 * runs. The loaded chunk stays in the game until the new one is built, then is evicted
+	 * and replaced by it, with its eaten fruits grown back.
+	 */
+	void regenerateCurrentChunk();
+}
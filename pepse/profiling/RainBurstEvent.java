@@ -0,0 +1,34 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event marking a cloud starting drops when the avatar jumps.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@Name("pepse.RainBurst")
+@Label("Rain Burst")
+@Category({"Pepse", "Weather"})
+@Description("A cloud started raining drops")
+public class RainBurstEvent extends Event {
+	// Number of drops started
+	@Label("Drops")
+	private int dropCount;
+
+	/**
+	 * Commits the event, if it is recorded.
+	 *
+	 * @param dropCount the number of drops started
+	 */
+	public void finish(int dropCount) {
+		if (this.shouldCommit()) {
+			this.dropCount = dropCount;
+			this.commit();
+		}
+	}
+}
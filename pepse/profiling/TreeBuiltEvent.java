@@ -0,0 +1,40 @@
+package pepse.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event covering the building of the objects of a single tree.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@Name("pepse.TreeBuilt")
+@Label("Tree Built")
+@Category({"Pepse", "World"})
+@Description("The trunk, leaves and fruits of a tree were built")
+public class TreeBuiltEvent extends Event {
+	// The x-coordinate of the trunk
+	@Label("X")
+	private int x;
+	// Number of objects of the tree
+	@Label("Objects")
+	private int objectCount;
+
+	/**
+	 * Ends the event and commits it, if it is recorded.
+	 *
+	 * @param x           the x-coordinate of the trunk
+	 * @param objectCount the number of objects of the tree
+	 */
+	public void finish(int x, int objectCount) {
+		this.end();
+		if (this.shouldCommit()) {
+			this.x = x;
+			this.objectCount = objectCount;
+			this.commit();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+
+import java.awt.*;
+
+/**
+ * A fixed set of colors approximating a base color, together with one shared
+ * renderable per color.
+ * <p>
+ * The variant used at a position is chosen by hashing that position, so the same
+ * position always gets the same color, and generating the world allocates no colors
+ * or renderables. Palettes are immutable and are obtained from ColorSupplier.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class ColorPalette {
+	// Multiplier mixing the x-coordinate into the position hash
+	private static final int X_MIX = 0x9E3779B1;
+	// Multiplier mixing the y-coordinate into the position hash
+	private static final int Y_MIX = 0x85EBCA77;
+	// Shift used to fold the high bits of the hash into the low bits
+	private static final int FOLD_SHIFT = 16;
+
+	// The color variants of the palette
+	private final Color[] colors;
+	// One shared renderable per color variant
+	private final RectangleRenderable[] renderables;
+
+	/**
+	 * Constructor for ColorPalette.
+	 *
+	 * @param colors the color variants of the palette, their count a power of two
+	 */
+	ColorPalette(Color[] colors) {
+		this.colors = colors.clone();
+		this.renderables = new RectangleRenderable[colors.length];
+		for (int i = 0; i < colors.length; i++) {
+			this.renderables[i] = new RectangleRenderable(colors[i]);
+		}
+	}
+
+	/**
+	 * Returns the color variant used at the given position.
+	 *
+	 * @param x the x-coordinate of the position
+	 * @param y the y-coordinate of the position
+	 * @return the color of the position
+	 */
+	public Color colorAt(int x, int y) {
+		return this.colors[this.indexAt(x, y)];
+	}
+
+	/**
+	 * Returns the shared renderable of the color variant used at the given position.
+	 *
+	 * @param x the x-coordinate of the position
+	 * @param y the y-coordinate of the position
+	 * @return a shared renderable filled with the color of the position
+	 */
+	public RectangleRenderable renderableAt(int x, int y) {
+		return this.renderables[this.indexAt(x, y)];
+	}
+
+	/**
+	 * Returns the number of color variants in the palette.
+	 *
+	 * @return the palette size
+	 */
+	public int size() {
+		return this.colors.length;
+	}
+
+	/*
+	 * Hashes a position into an index of a color variant.
+	 */
+	private int indexAt(int x, int y) {
+		int hash = x * X_MIX ^ y * Y_MIX;
+		hash ^= hash >>> FOLD_SHIFT;
+		return hash & (this.colors.length - 1);
+	}
+}
@@ -1,15 +1,68 @@
 package pepse.util;
 
 import java.awt.*;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides procedurally-generated colors around a pivot.
+ * Besides sampling a new color on every call, it hands out interned palettes of
+ * pre-computed color variants, which are shared by everyone asking for the same pivot.
  * @author Dan Nirel
  */
 public final class ColorSupplier {
     private static final int DEFAULT_COLOR_DELTA = 10;
+    private static final int PALETTE_SIZE = 16;
+    private static final int RGB_BITS = 24;
+    private static final long MONO_FLAG = 1L << 62;
     private final static Random random = new Random();
+    private final static Map<Long, ColorPalette> palettes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared palette of colors similar to baseColor, with a default delta.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @return A palette of colors similar to baseColor.
+     */
+    public static ColorPalette palette(Color baseColor) {
+        return palette(baseColor, DEFAULT_COLOR_DELTA, false);
+    }
+
+    /**
+     * Returns the shared palette of colors similar to baseColor, with a default delta,
+     * where the difference is equal along all channels.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @return A palette of gray colors similar to baseColor.
+     */
+    public static ColorPalette monoPalette(Color baseColor) {
+        return palette(baseColor, DEFAULT_COLOR_DELTA, true);
+    }
+
+    /**
+     * Returns the shared palette of colors similar to baseColor, with a difference of at
+     * most colorDelta. The variants are sampled once, from a generator seeded by the
+     * pivot, so a palette is the same in every run.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between a variant and the base color.
+     * @param mono Whether the difference is equal along all channels.
+     * @return A palette of colors similar to baseColor.
+     */
+    public static ColorPalette palette(Color baseColor, int colorDelta, boolean mono) {
+        long key = ((long) colorDelta << RGB_BITS) | (baseColor.getRGB() & 0xFFFFFFL)
+                | (mono ? MONO_FLAG : 0);
+        return palettes.computeIfAbsent(key, unused -> {
+            Random paletteRandom = new Random(key);
+            Color[] colors = new Color[PALETTE_SIZE];
+            for (int i = 0; i < PALETTE_SIZE; i++) {
+                colors[i] = mono ? sampleMonoColor(baseColor, colorDelta, paletteRandom) :
+                        sampleColor(baseColor, colorDelta, paletteRandom);
+            }
+            return new ColorPalette(colors);
+        });
+    }
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -31,8 +84,7 @@ public final class ColorSupplier {
      * @return A color similar to baseColor.
      */
     public static Color approximateMonoColor(Color baseColor, int colorDelta){
-        int channel = randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta);
-        return new Color(channel, channel, channel);
+        return sampleMonoColor(baseColor, colorDelta, random);
     }
 
 
@@ -57,11 +109,26 @@ public final class ColorSupplier {
      * @return A color similar to baseColor.
      */
     public static Color approximateColor(Color baseColor, int colorDelta) {
+        return sampleColor(baseColor, colorDelta, random);
+    }
 
+    /*
+     * Samples a color similar to baseColor from the given generator.
+     */
+    private static Color sampleColor(Color baseColor, int colorDelta, Random rand) {
         return new Color(
-                randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta),
-                randomChannelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta),
-                randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
+                randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta, rand),
+                randomChannelInRange(baseColor.getGreen()-colorDelta, baseColor.getGreen()+colorDelta, rand),
+                randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta, rand));
+    }
+
+    /*
+     * Samples a gray color similar to baseColor from the given generator.
+     */
+    private static Color sampleMonoColor(Color baseColor, int colorDelta, Random rand) {
+        int channel = randomChannelInRange(baseColor.getRed()-colorDelta, baseColor.getRed()+colorDelta,
+                rand);
+        return new Color(channel, channel, channel);
     }
 
     /**
@@ -69,10 +136,11 @@ public final class ColorSupplier {
      *
      * @param min The lower bound of the given range.
      * @param max The upper bound of the given range.
+     * @param rand The generator to sample from.
      * @return A random number in the range [min, max], clipped to [0,255].
      */
-    private static int randomChannelInRange(int min, int max) {
-        int channel = random.nextInt(max-min+1) + min;
+    private static int randomChannelInRange(int min, int max, Random rand) {
+        int channel = rand.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
 }
@@ -0,0 +1,19 @@
+package pepse.util;
+
+/**
+ * An operation on a single float operand that produces a float result.
+ * The primitive specialization of a Function from Float to Float, used where the
+ * boxing of every call would matter.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@FunctionalInterface
+public interface FloatUnaryOperator {
+	/**
+	 * Applies this operator to the given operand.
+	 *
+	 * @param operand the operand
+	 * @return the operator result
+	 */
+	public float applyAsFloat(float operand);
+}
@@ -0,0 +1,56 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+
+/**
+ * The layers the game puts its objects in, with names to show them by, and a count of
+ * the live objects in each of them.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class GameLayers {
+	// The layers, from the back to the front
+	private static final int[] LAYERS = {Layer.BACKGROUND, Layer.BACKGROUND + 1,
+			Layer.STATIC_OBJECTS - 1, Layer.STATIC_OBJECTS, Layer.DEFAULT, Layer.FOREGROUND, Layer.UI};
+	// The names of the layers
+	private static final String[] NAMES = {"background", "clouds", "visual ground",
+			"static", "default", "foreground", "ui"};
+	/**
+	 * The number of layers.
+	 */
+	public static final int COUNT = LAYERS.length;
+
+	/*
+	 * Not instantiable.
+	 */
+	private GameLayers() {
+	}
+
+	/**
+	 * Returns the name of a layer.
+	 *
+	 * @param index the index of the layer, from 0 to COUNT - 1
+	 * @return the name of the layer
+	 */
+	public static String nameOf(int index) {
+		return NAMES[index];
+	}
+
+	/**
+	 * Counts the live objects of a layer. Walks the whole layer, so it is meant to be
+	 * called once in a while rather than every frame.
+	 *
+	 * @param gameObjects the objects of the game
+	 * @param index       the index of the layer, from 0 to COUNT - 1
+	 * @return the number of objects in the layer
+	 */
+	public static int countObjects(GameObjectCollection gameObjects, int index) {
+		int count = 0;
+		for (GameObject ignored : gameObjects.objectsInLayer(LAYERS[index])) {
+			count++;
+		}
+		return count;
+	}
+}
@@ -8,6 +8,11 @@ public class NoiseGenerator {
 	private int[] p;
 	private int[] permutation;
 	private double startPoint;
+	// Gradient coefficient of the left corner of every lattice cell along x,
+	// null when the seed does not allow the one dimensional path
+	private double[] leftGradients;
+	// Gradient coefficient of the right corner of every lattice cell along x
+	private double[] rightGradients;
 
 	/**
 	 * The constructor of the NoiseGenerator class.
@@ -54,6 +59,29 @@ public class NoiseGenerator {
 		for (int i = 0; i < 256; i++) {
 			p[256 + i] = p[i] = permutation[i];
 		}
+		initLatticeGradients();
+	}
+
+	/*
+	 * The terrain only samples the line y = 0, z = 0. After the seed offset that line
+	 * has y = seed and z = 0, so when the seed is a whole number both y and z sit exactly
+	 * on lattice planes: their fade curves are 0, the blends along y and z keep only the
+	 * y0/z0 corners, and the gradient of a corner reduces to a constant coefficient
+	 * (1, -1 or 0) times the offset along x. This caches those coefficients for the two
+	 * corners of every one of the 256 cells along x, shared by all octaves.
+	 */
+	private void initLatticeGradients() {
+		if (this.seed != Math.floor(this.seed) || Double.isInfinite(this.seed)) {
+			return;
+		}
+		int Y = (int) Math.floor(this.seed) & 255;
+		this.leftGradients = new double[256];
+		this.rightGradients = new double[256];
+		for (int X = 0; X < 256; X++) {
+			// the corner hashes of smoothNoise, with Z = 0
+			this.leftGradients[X] = grad(p[p[p[X] + Y]], 1, 0, 0);
+			this.rightGradients[X] = grad(p[p[p[X + 1] + Y]], 1, 0, 0);
+		}
 
 	}
 
@@ -75,15 +103,41 @@ public class NoiseGenerator {
 		double currentPoint = startPoint;
 
 		while (currentPoint >= 1) {
-			value += smoothNoise((x / currentPoint), 0, 0) * currentPoint;
+			value += octaveNoise(x / currentPoint) * currentPoint;
 			currentPoint /= 2.0;
 		}
 
 		return value * factor / startPoint;
 	}
 
+	/*
+	 * Evaluates a single octave on the line the terrain samples, with the one
+	 * dimensional path when the seed allows it. Package-private for the tests, which hold
+	 * it to smoothNoise(x, 0, 0).
+	 */
+	double octaveNoise(double x) {
+		if (this.leftGradients == null) {
+			return smoothNoise(x, 0, 0);
+		}
+		// Same offset as smoothNoise, applied in the same order
+		x += this.seed;
+		x += this.seed;
+
+		double floor = Math.floor(x);
+		int X = (int) floor & 255; // FIND UNIT CELL THAT CONTAINS POINT
+		x -= floor;               // AND THE RELATIVE X OF POINT IN IT
+
+		return lerp(fade(x), this.leftGradients[X] * x, this.rightGradients[X] * (x - 1));
+	}
+
+	/*
+	 * Returns whether octaveNoise takes the one dimensional path, for the tests.
+	 */
+	boolean isOneDimensional() {
+		return this.leftGradients != null;
+	}
 
-	private double smoothNoise(double x, double y, double z) {
+	double smoothNoise(double x, double y, double z) {
 		// Offset each coordinate by the seed value
 		x += this.seed;
 		y += this.seed;
@@ -0,0 +1,55 @@
+package pepse.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of reusable objects.
+ * <p>
+ * Released objects are kept until they are acquired again, up to a fixed capacity; an
+ * object released into a full pool is dropped and left to the garbage collector.
+ * Acquiring and releasing never allocate and may be done from any thread.
+ *
+ * @param <T> the type of the pooled objects
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class ObjectPool<T> {
+	// The objects waiting to be reused
+	private final ArrayBlockingQueue<T> free;
+
+	/**
+	 * Constructor for ObjectPool.
+	 *
+	 * @param capacity the maximal number of objects kept for reuse
+	 */
+	public ObjectPool(int capacity) {
+		this.free = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * Takes an object out of the pool.
+	 *
+	 * @return a released object, or null if the pool is empty
+	 */
+	public T acquire() {
+		return this.free.poll();
+	}
+
+	/**
+	 * Puts an object that is no longer used back into the pool, unless the pool is full.
+	 *
+	 * @param object the object to reuse later
+	 * @return true if the object was kept, false if the pool was full
+	 */
+	public boolean release(T object) {
+		return this.free.offer(object);
+	}
+
+	/**
+	 * Returns the number of objects waiting to be reused.
+	 *
+	 * @return the number of pooled objects
+	 */
+	public int size() {
+		return this.free.size();
+	}
+}
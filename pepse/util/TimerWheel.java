@@ -0,0 +1,230 @@
+package pepse.util;
+
+/**
+ * A hierarchical timer wheel: schedules any number of timers against a single game clock
+ * at a fixed tick resolution.
+ * <p>
+ * The wheel has LEVELS levels of SLOTS slots each. A slot of the first level holds the
+ * timers due at one tick, a slot of every next level the timers due during a whole turn
+ * of the level below it. Whenever the level below completes a turn, the timers of the
+ * next slot of the level above are spread over it. Scheduling and cancelling take
+ * constant time, and a tick costs only the timers it reaches, so thousands of far timers
+ * cost nothing until they come close.
+ * <p>
+ * Timers are intrusive list nodes, so scheduling never allocates. The wheel must be used
+ * from a single thread.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class TimerWheel {
+	// Number of bits of a slot index within a level
+	private static final int SLOT_BITS = 6;
+	// Number of slots in every level
+	private static final int SLOTS = 1 << SLOT_BITS;
+	// Mask of a slot index within a level
+	private static final int SLOT_MASK = SLOTS - 1;
+	// Number of levels of the wheel
+	private static final int LEVELS = 3;
+	// Number of ticks the whole wheel spans
+	private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+	// Duration of a tick in seconds
+	private final float tickLength;
+	// The first timer of every slot, level after level
+	private final Timer[] slots;
+	// The last tick whose timers were fired
+	private long currentTick;
+	// Seconds elapsed on the clock of the wheel
+	private double time;
+	// Number of scheduled timers
+	private int size;
+
+	/**
+	 * Constructor for TimerWheel, with its clock at 0.
+	 *
+	 * @param tickLength the resolution of the wheel, in seconds
+	 */
+	public TimerWheel(float tickLength) {
+		this.tickLength = tickLength;
+		this.slots = new Timer[SLOTS * LEVELS];
+		this.currentTick = 0;
+		this.time = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the time on the clock of the wheel.
+	 *
+	 * @return the seconds elapsed since the wheel was created
+	 */
+	public double now() {
+		return this.time;
+	}
+
+	/**
+	 * Returns the number of scheduled timers.
+	 *
+	 * @return the number of timers that did not expire yet
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Schedules a timer to expire at the given time, replacing its previous schedule.
+	 * A time that already passed expires the timer on the next tick.
+	 *
+	 * @param timer    the timer to schedule
+	 * @param deadline the clock time, in seconds, the timer expires at
+	 */
+	public void schedule(Timer timer, double deadline) {
+		this.cancel(timer);
+		timer.deadline = Math.max(this.currentTick + 1, (long) Math.ceil(deadline / this.tickLength));
+		this.insert(timer);
+		this.size++;
+	}
+
+	/**
+	 * Cancels a timer if it is scheduled.
+	 *
+	 * @param timer the timer to cancel
+	 */
+	public void cancel(Timer timer) {
+		if (timer.slot == Timer.UNSCHEDULED) {
+			return;
+		}
+		this.unlink(timer);
+		this.size--;
+	}
+
+	/**
+	 * Advances the clock, and expires every timer whose time was reached, in the order of
+	 * their ticks.
+	 *
+	 * @param deltaTime The time elapsed, in seconds, since the last frame.
+	 */
+	public void advance(float deltaTime) {
+		this.time += deltaTime;
+		long targetTick = (long) Math.floor(this.time / this.tickLength);
+		while (this.currentTick < targetTick) {
+			this.currentTick++;
+			this.cascade(this.currentTick);
+			this.fire((int) (this.currentTick & SLOT_MASK));
+		}
+	}
+
+	/**
+	 * Returns the time a timer expires at.
+	 *
+	 * @param timer a scheduled timer
+	 * @return the clock time, in seconds, the timer expires at
+	 */
+	public double deadlineOf(Timer timer) {
+		return timer.deadline * (double) this.tickLength;
+	}
+
+	/*
+	 * Spreads the timers of the higher levels whose slot starts at the given tick over
+	 * the levels below, from the highest level down.
+	 */
+	private void cascade(long tick) {
+		for (int level = LEVELS - 1; level > 0; level--) {
+			long levelTick = tick >> (SLOT_BITS * level);
+			if ((tick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+				continue;
+			}
+			int slot = level * SLOTS + (int) (levelTick & SLOT_MASK);
+			Timer timer = this.slots[slot];
+			this.slots[slot] = null;
+			while (timer != null) {
+				Timer next = timer.next;
+				timer.slot = Timer.UNSCHEDULED;
+				this.insert(timer);
+				timer = next;
+			}
+		}
+	}
+
+	/*
+	 * Expires every timer of a slot of the first level. The slot is read again after
+	 * every timer, as an expiring timer may cancel the others; it never schedules one
+	 * into the slot, since a timer is always scheduled at least a tick ahead.
+	 */
+	private void fire(int slot) {
+		Timer timer;
+		while ((timer = this.slots[slot]) != null) {
+			this.unlink(timer);
+			this.size--;
+			timer.expire();
+		}
+	}
+
+	/*
+	 * Puts a timer in the slot of the lowest level whose turn reaches its deadline.
+	 */
+	private void insert(Timer timer) {
+		long delta = Math.max(0, timer.deadline - this.currentTick);
+		long tick = this.currentTick + Math.min(delta, SPAN - 1);
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+			level++;
+		}
+		int slot = level * SLOTS + (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+		timer.slot = slot;
+		timer.previous = null;
+		timer.next = this.slots[slot];
+		if (timer.next != null) {
+			timer.next.previous = timer;
+		}
+		this.slots[slot] = timer;
+	}
+
+	/*
+	 * Takes a timer out of its slot.
+	 */
+	private void unlink(Timer timer) {
+		if (timer.previous != null) {
+			timer.previous.next = timer.next;
+		} else {
+			this.slots[timer.slot] = timer.next;
+		}
+		if (timer.next != null) {
+			timer.next.previous = timer.previous;
+		}
+		timer.slot = Timer.UNSCHEDULED;
+		timer.next = null;
+		timer.previous = null;
+	}
+
+	/**
+	 * A task run by a TimerWheel when its time is reached. A timer is scheduled in at most
+	 * one wheel at a time, and may be scheduled again after it expired.
+	 */
+	public abstract static class Timer {
+		// Slot of a timer that is not scheduled
+		private static final int UNSCHEDULED = -1;
+
+		// The tick the timer expires at
+		private long deadline;
+		// The slot of the wheel holding the timer, UNSCHEDULED if it is not scheduled
+		private int slot = UNSCHEDULED;
+		// The previous timer in the same slot
+		private Timer previous;
+		// The next timer in the same slot
+		private Timer next;
+
+		/**
+		 * Checks whether the timer is scheduled.
+		 *
+		 * @return true if the timer waits in a wheel
+		 */
+		public boolean isScheduled() {
+			return this.slot != UNSCHEDULED;
+		}
+
+		/**
+		 * Runs when the time of the timer is reached.
+		 */
+		protected abstract void expire();
+	}
+}
@@ -1,6 +1,5 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.collisions.Collision;
 import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
@@ -8,18 +7,22 @@ import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.world.AvatarJumpObserver.AvatarJumpObserver;
+import pepse.world.events.AvatarEvent;
+import pepse.world.events.AvatarEventBus;
+import pepse.world.events.AvatarEventType;
 
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
 
 /**
  * Represents the main player character in the game, capable of moving, jumping,
  * and displaying different animations based on its state and user input.
  * The avatar's actions consume energy, which regenerates when idle.
+ * The avatar publishes its jumps, landings, energy, facing and chunk crossings on an
+ * AvatarEventBus; the game manager delivers them once every frame.
  *
  * @author Eliyahu Peretz & Rom Ilany
  */
-public class Avatar extends GameObject {
+public class Avatar extends KindedObject {
 	// The avatar's width and height in pixels.
 	private static final int SIZE = 30;
 	// A general-purpose constant used for
@@ -37,8 +40,6 @@ public class Avatar extends GameObject {
 	private static final int TWO = 2;
 	// A tag identifying the avatar GameObject.
 	private static final String TAG = "avatar";
-	// Used to identify collision with blocks.
-	private static final String BLOCK_TAG = "block";
 	//animation
 	private static final String IMAGE_PATH = "assets/run_0.png";
 	private static final String ANIMATION_PIC1 = "assets/idle_0.png";
@@ -75,8 +76,19 @@ public class Avatar extends GameObject {
 	private AnimationRenderable run;
 	private AnimationRenderable jump;
 	private AnimationRenderable idle;
-	// A list of observers that react when the avatar jumps.
-	private ArrayList<AvatarJumpObserver> jumpObserver;
+	// Delivers the events of the avatar to the systems listening to them
+	private final AvatarEventBus events;
+	// Width of the chunks whose crossing is published, 0 to publish none
+	private int chunkWidth;
+	// Whether the avatar was in the air at the end of the last update
+	private boolean airborne;
+
+	// stops falling when landing on a ground block
+	static {
+		CollisionDispatcher.register(ObjectKind.AVATAR, ObjectKind.BLOCK,
+				(Avatar avatar, Block block, Collision collision) ->
+						avatar.transform().setVelocityY(0));
+	}
 
 	/**
 	 * Constructs a new Avatar instance.
@@ -90,7 +102,7 @@ public class Avatar extends GameObject {
 				  ImageReader imageReader) {
 		super(new Vector2(topLeftCorner.x(), topLeftCorner.y() - (SIZE + ROUND)),
 				new Vector2(SIZE, SIZE), imageReader.readImage(
-						IMAGE_PATH, false));
+						IMAGE_PATH, false), ObjectKind.AVATAR);
 		this.inputListener = inputListener;
 		this.setTag(TAG);
 		this.mode = Moves.IDLE;
@@ -124,7 +136,9 @@ public class Avatar extends GameObject {
 				imageReader.readImage(
 						ANIMATION_PIC14, false)};
 		this.run = new AnimationRenderable(clips, HALF);
-		this.jumpObserver = new ArrayList<>();
+		this.events = new AvatarEventBus();
+		this.chunkWidth = 0;
+		this.airborne = false;
 	}
 
 
@@ -175,6 +189,24 @@ public class Avatar extends GameObject {
 			isIdle = false;
 		}
 		this.otherSituationCheck(isIdle, isNotIdle, bothRightLeft);
+		this.publishState();
+	}
+
+	/*
+	 * Publishes the landing, energy and chunk of the avatar.
+	 */
+	private void publishState() {
+		boolean inAir = this.getVelocity().y() != 0;
+		if (this.airborne && !inAir) {
+			this.events.publish(AvatarEventType.LAND, 0);
+		}
+		this.airborne = inAir;
+		this.events.publish(AvatarEventType.ENERGY, this.getEnergy());
+		if (this.chunkWidth > 0) {
+			float centerX = this.getTopLeftCorner().x() + SIZE * HALF;
+			this.events.publish(AvatarEventType.CHUNK_CROSSED,
+					(int) Math.floor(centerX / this.chunkWidth));
+		}
 	}
 
 	/*
@@ -184,7 +216,7 @@ public class Avatar extends GameObject {
 		transform().setVelocityY(VELOCITY_Y);
 		renderer().setRenderable(this.jump);
 		this.mode = Moves.JUMP;
-		this.updateAvatarJumpObserver();
+		this.events.publish(AvatarEventType.JUMP, 0);
 	}
 
 	/*
@@ -198,6 +230,7 @@ public class Avatar extends GameObject {
 			renderer().setRenderable(this.jump);
 			renderer().setIsFlippedHorizontally(false);
 		}
+		this.events.publish(AvatarEventType.FACING, AvatarEventType.FACING_RIGHT);
 	}
 
 	/*
@@ -211,6 +244,7 @@ public class Avatar extends GameObject {
 			renderer().setRenderable(this.jump);
 			renderer().setIsFlippedHorizontally(true);
 		}
+		this.events.publish(AvatarEventType.FACING, AvatarEventType.FACING_LEFT);
 	}
 
 	/*
@@ -256,21 +290,6 @@ public class Avatar extends GameObject {
 
 	}
 
-	@Override
-	/**
-	 * Handles collision with other game objects.
-	 * Specifically, stops vertical velocity when colliding with blocks to simulate landing.
-	 *
-	 * @param other     The other game object involved in the collision.
-	 * @param collision Information about the collision event.
-	 */
-	public void onCollisionEnter(GameObject other, Collision collision) {
-		super.onCollisionEnter(other, collision);
-		if (other.getTag().equals(BLOCK_TAG)) {
-			this.transform().setVelocityY(0);
-		}
-	}
-
 	/**
 	 * Sets the avatar's energy level.
 	 *
@@ -278,6 +297,7 @@ public class Avatar extends GameObject {
 	 */
 	public void setEnergy(int energy) {
 		this.energy = energy;
+		this.events.publish(AvatarEventType.ENERGY, energy);
 	}
 
 	/**
@@ -290,20 +310,31 @@ public class Avatar extends GameObject {
 	}
 
 	/**
-	 * Registers an observer that will be notified whenever the avatar jumps.
+	 * Returns the bus the avatar publishes its events on.
 	 *
-	 * @param jumpObserver The observer to register.
+	 * @return the event bus of the avatar
 	 */
-	public void registerObserverToLocation(AvatarJumpObserver jumpObserver) {
-		this.jumpObserver.add(jumpObserver);
+	public AvatarEventBus getEvents() {
+		return this.events;
 	}
 
-	/*
-	 * update the avatar observer when the avatar jump
+	/**
+	 * Starts publishing a CHUNK_CROSSED event whenever the center of the avatar enters
+	 * another chunk.
+	 *
+	 * @param chunkWidth the width of a chunk in pixels
 	 */
-	private void updateAvatarJumpObserver() {
-		for (AvatarJumpObserver observer : this.jumpObserver) {
-			observer.updateWhenJump();
-		}
+	public void setChunkWidth(int chunkWidth) {
+		this.chunkWidth = chunkWidth;
+	}
+
+	/**
+	 * Registers an observer that will be notified whenever the avatar jumps.
+	 *
+	 * @param jumpObserver The observer to register.
+	 */
+	public void registerObserverToLocation(AvatarJumpObserver jumpObserver) {
+		this.events.subscribe(AvatarEventType.JUMP,
+				(AvatarEvent event) -> jumpObserver.updateWhenJump());
 	}
 }
@@ -1,42 +1,37 @@
 package pepse.world.AvatarJumpObserver;
 
 import danogl.GameObject;
-import danogl.collisions.Layer;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
-import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.util.Vector2;
+import pepse.profiling.RainBurstEvent;
+import pepse.util.ColorPalette;
 import pepse.util.ColorSupplier;
-import pepse.world.Block;
 
 import java.awt.*;
-import java.util.*;
+import java.awt.image.BufferedImage;
 import java.util.List;
-import java.util.function.BiConsumer;
-import java.util.function.Consumer;
+import java.util.Random;
 
 /**
  * class representing a cloud.
  * when avatar jump the cloud is raining
+ * <p>
+ * A cloud is a single object drawn by one image, rasterized once from the CLOUD pattern
+ * and shared by all the clouds. It drifts to the right at its own speed in camera
+ * coordinates and starts over left of the window once it left it. A cloud may be drawn
+ * at any scale, so farther clouds look smaller; its rain falls from the cells of the
+ * pattern it occupies at that scale.
  *
  * @author Eliyahu Peretz & Rom Ilany
  */
-public class Cloud implements AvatarJumpObserver {
+public class Cloud extends GameObject implements AvatarJumpObserver {
 	/*
 	 * Size of each cloud block in pixels.
 	 */
 	private static final int SIZE_OF_BLOCK = 30;
 	/*
-	 * Size of raindrops in pixels (width and height).
-	 */
-	private static final int SIZE_OF_DROPS = 8;
-	/*
-	 * Numeric constant used in animation duration calculations.
-	 */
-	private static final int TWENTY_FIVE = 25;
-	/*
-	 * Numeric constant used in animation and positioning calculations.
+	 * Number of blocks a cloud starts left of the window.
 	 */
 	private static final int SEVEN = 7;
 	/*
@@ -44,6 +39,11 @@ public class Cloud implements AvatarJumpObserver {
 	 */
 	private static final Color BASE_CLOUD_COLOR =
 			new Color(255, 255, 255);
+	/*
+	 * Shared gray approximations of the cloud color, picked by block position.
+	 */
+	private static final ColorPalette CLOUD_PALETTE =
+			ColorSupplier.monoPalette(BASE_CLOUD_COLOR);
 	/*
 	 * Density of raindrops spawned when the
 	 * cloud rains.
@@ -58,23 +58,6 @@ public class Cloud implements AvatarJumpObserver {
 	 * a given cloud block.
 	 */
 	private static final int RANDOM_BOUND = 10;
-	/*
-	 * Duration of the raindrop fade-out animation in seconds.
-	 */
-	private static final float DROP_CYCLE = 3f;
-	/*
-	 * Final opacity of raindrops after fade-out
-	 */
-	private static final float DROP_FINALE = 0;
-	/*
-	 * Initial opacity of raindrops at creation
-	 */
-	private static final float INITIAL_DROP = 1;
-	/*
-	 * Width of the screen in pixels,
-	 * used for cloud movement boundaries.
-	 */
-	private static final int SCREEN_WIDTH = 1000;
 	// Pattern of blocks forming the cloud (1 = block present, 0 = empty)
 	private static final List<List<Integer>> CLOUD = List.of(
 			List.of(0, 1, 1, 0, 0, 0),
@@ -85,107 +68,125 @@ public class Cloud implements AvatarJumpObserver {
 			List.of(0, 0, 0, 0, 0, 0)
 
 	);
-
-	private List<List<GameObject>> drops;// Tracks blocks for raindrop spawning
-	private Random rand;
-	private BiConsumer<GameObject, Integer> removeGameObject;
-	private BiConsumer<GameObject, Integer> addGameObject;
+	// Number of block columns of the pattern
+	private static final int COLUMNS = CLOUD.get(0).size();
+	// The column and row of every occupied cell of the pattern, one after the other
+	private static final int[] OCCUPIED_CELLS = findOccupiedCells();
+	// The image of the pattern, shared by all the clouds
+	private static final ImageRenderable IMAGE = rasterize();
+
+	// Chooses the cells the drops fall from
+	private final Random rand;
+	// The particle system the drops fall in
+	private final Rain rain;
+	// The width of the window the cloud crosses
+	private final float windowWidth;
+	// The horizontal speed of the cloud in pixels per second
+	private final float speed;
+	// The size of a cell of the pattern as the cloud is drawn
+	private final float cellSize;
 
 	/**
 	 * Constructs a Cloud object.
 	 *
-	 * @param removeGameObject a function to remove GameObjects from the game (used for drops)
-	 * @param addGameObject    a function to add GameObjects to the game (used for drops)
+	 * @param topLeftCorner the top-left corner of the cloud, in camera coordinates
+	 * @param scale         the size of the cloud relative to its blocks' full size
+	 * @param speed         the horizontal speed of the cloud in pixels per second
+	 * @param weather       the window width the cloud crosses, the particle system its
+	 *                      drops fall in, and the random generator choosing them
 	 */
-	public Cloud(BiConsumer<GameObject, Integer> removeGameObject,
-				 BiConsumer<GameObject, Integer> addGameObject) {
-		this.drops = new ArrayList<>();
-		this.rand = new Random();
-		this.addGameObject = addGameObject;
-		this.removeGameObject = removeGameObject;
+	public Cloud(Vector2 topLeftCorner, float scale, float speed, Weather weather) {
+		super(topLeftCorner, new Vector2(COLUMNS, CLOUD.size()).mult(SIZE_OF_BLOCK * scale), IMAGE);
+		this.rand = weather.getRandom();
+		this.rain = weather.getRain();
+		this.windowWidth = weather.getWindowWidth();
+		this.speed = speed;
+		this.cellSize = SIZE_OF_BLOCK * scale;
+		this.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 	}
 
 	/**
-	 * Creates a cloud of blocks starting from the given top-left corner.
+	 * Returns the x-coordinate a cloud of the given scale enters the window from.
 	 *
-	 * @param topLeftCorner the starting position of the cloud
-	 * @param cycleLength   the animation cycle length for each block
-	 * @return list of all blocks in the created cloud
+	 * @param scale the size of the cloud relative to its blocks' full size
+	 * @return the x-coordinate of the cloud's top-left corner when it starts over
 	 */
-	public List<Block> create(Vector2 topLeftCorner, float cycleLength) {
-		List<Block> cloud = new ArrayList<>();
-		float row = topLeftCorner.y();
-		float col = topLeftCorner.x();
-		Block cloudBlock;
-		ArrayList<GameObject> saveRow = new ArrayList<>();
-
-		// Iterate through cloud pattern rows
-		for (List<Integer> r : CLOUD) {
-			for (int i : r) {
-				if (i == 1) {
-					// Create a block at current (col, row)
-					cloudBlock = new Block(new Vector2(col, row),
+	public static float startX(float scale) {
+		return -SIZE_OF_BLOCK * SEVEN * scale;
+	}
 
-							new RectangleRenderable(ColorSupplier.approximateMonoColor(
-									BASE_CLOUD_COLOR)));
-					addCloudeBlock(cloudBlock); // Apply animation/timing
-					cloud.add(cloudBlock); // Add to return list
-					saveRow.add(cloudBlock); // Save for drop tracking
+	/*
+	 * Finds the occupied cells of the pattern.
+	 */
+	private static int[] findOccupiedCells() {
+		int count = 0;
+		for (List<Integer> row : CLOUD) {
+			for (int cell : row) {
+				count += cell;
+			}
+		}
+		int[] cells = new int[count * 2];
+		int next = 0;
+		for (int row = 0; row < CLOUD.size(); row++) {
+			for (int col = 0; col < COLUMNS; col++) {
+				if (CLOUD.get(row).get(col) == 1) {
+					cells[next++] = col;
+					cells[next++] = row;
 				}
-				col = col + SIZE_OF_BLOCK; // Move to next column
 			}
-
-			//move forward
-			this.drops.add(saveRow);
-			saveRow = new ArrayList<>();
-			col = topLeftCorner.x();
-			row = row + SIZE_OF_BLOCK;
 		}
-		return cloud;
+		return cells;
 	}
 
-	//Adds animation and sets coordinate space for the given cloud block.
-	private void addCloudeBlock(Block cloudBlock) {
-		float start = cloudBlock.getTopLeftCorner().x() - Block.SIZE * SEVEN;
-		new Transition<Float>(cloudBlock,
-				cloudBlock.transform()::setTopLeftCornerX,
-				start, SCREEN_WIDTH + Block.SIZE * SEVEN + start,
-				Transition.LINEAR_INTERPOLATOR_FLOAT, (SCREEN_WIDTH + Block.SIZE) / TWENTY_FIVE,
-				Transition.TransitionType.TRANSITION_LOOP,
-				null);
-		cloudBlock.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+	/*
+	 * Rasterizes the occupied cells of the pattern into a single image.
+	 */
+	private static ImageRenderable rasterize() {
+		BufferedImage image = new BufferedImage(COLUMNS * SIZE_OF_BLOCK,
+				CLOUD.size() * SIZE_OF_BLOCK, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		for (int i = 0; i < OCCUPIED_CELLS.length; i += 2) {
+			int x = OCCUPIED_CELLS[i] * SIZE_OF_BLOCK;
+			int y = OCCUPIED_CELLS[i + 1] * SIZE_OF_BLOCK;
+			graphics.setColor(CLOUD_PALETTE.colorAt(x, y));
+			graphics.fillRect(x, y, SIZE_OF_BLOCK, SIZE_OF_BLOCK);
+		}
+		graphics.dispose();
+		return new ImageRenderable(image);
 	}
 
+	@Override
+	/**
+	 * Moves the cloud to the right, starting over left of the window once it left it.
+	 *
+	 * @param deltaTime The time elapsed, in seconds, since the last frame.
+	 */
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		float x = this.getTopLeftCorner().x() + this.speed * deltaTime;
+		if (x > this.windowWidth) {
+			x = startX(this.cellSize / SIZE_OF_BLOCK);
+		}
+		this.transform().setTopLeftCornerX(x);
+	}
 
 	@Override
 	/**
 	 * Called when the avatar jumps.
-	 * Randomly generates raindrop objects beneath cloud blocks.
-	 * Drops are added to the background layer and fade out over time.
+	 * Randomly starts raindrops beneath cloud blocks.
+	 * Drops fall in the rain particle system and fade out over time.
 	 */
 	public void updateWhenJump() {
-		for (List<GameObject> row : this.drops) {
-			for (GameObject col : row) {
-
-				//creating the rain
-				if (this.rand.nextInt(RANDOM_BOUND) <= DROPS_DENSITY) {
-					Drop drop = new Drop(col.getTopLeftCorner(),
-							new Vector2(SIZE_OF_DROPS, SIZE_OF_DROPS)
-							, new RectangleRenderable(Color.blue));
-					this.addDrop(drop, Layer.BACKGROUND);
-					drop.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);////
-					this.addGameObject.accept(drop, Layer.BACKGROUND);
-				}
+		Vector2 topLeft = this.getTopLeftCorner();
+		int drops = 0;
+		for (int i = 0; i < OCCUPIED_CELLS.length; i += 2) {
+			//creating the rain
+			if (this.rand.nextInt(RANDOM_BOUND) <= DROPS_DENSITY) {
+				this.rain.spawn(topLeft.x() + OCCUPIED_CELLS[i] * this.cellSize,
+						topLeft.y() + OCCUPIED_CELLS[i + 1] * this.cellSize);
+				drops++;
 			}
 		}
+		new RainBurstEvent().finish(drops);
 	}
-
-	//creating transition for each drop
-	private void addDrop(Drop drop, int layer) {
-		new Transition<Float>(drop, drop.renderer()::setOpaqueness, INITIAL_DROP, DROP_FINALE
-				, Transition.CUBIC_INTERPOLATOR_FLOAT, DROP_CYCLE, Transition.TransitionType.TRANSITION_ONCE,
-				() -> this.removeGameObject.accept(drop, layer));
-	}
-
-
 }
@@ -0,0 +1,200 @@
+package pepse.world.AvatarJumpObserver;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.FloatUnaryOperator;
+import pepse.world.Block;
+
+import java.awt.*;
+import java.util.function.Supplier;
+
+/**
+ * A particle system drawing all the raindrops as a single game object.
+ * <p>
+ * Drops are kept in primitive arrays (position, vertical velocity and age), in a ring of
+ * fixed capacity: when it is full, a new drop replaces the oldest one. Every frame the
+ * object falls and ages all the live drops in one update and draws them in one render
+ * call. A drop fades out over its lifetime and disappears when it ends, or earlier when
+ * a ground height function is given and the drop reaches the ground under it.
+ * <p>
+ * The rain lives in camera coordinates, like the clouds it falls from.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class Rain extends GameObject {
+	// Maximal number of drops alive at once
+	private static final int CAPACITY = 512;
+	// Size of raindrops in pixels (width and height)
+	private static final int DROP_SIZE = 8;
+	// Downward acceleration of the drops
+	private static final float GRAVITY = 140;
+	// Time, in seconds, a drop lives and fades out over
+	private static final float LIFETIME = 3f;
+	// Color of the drops
+	private static final Color DROP_COLOR = Color.blue;
+	// Number of opacity levels the drops are drawn with
+	private static final int OPACITY_LEVELS = 32;
+	// Largest channel value of a color
+	private static final int MAX_CHANNEL = 255;
+	// Coefficient of the square term of the ease curve of the fade out
+	private static final float EASE_SQUARE = 3;
+	// Coefficient of the cubic term of the ease curve of the fade out
+	private static final float EASE_CUBE = 2;
+
+	// The drop color at every opacity level, from transparent to opaque
+	private static final Color[] FADE_COLORS = createFadeColors();
+
+	// The x-coordinate of every drop, in camera coordinates
+	private final float[] dropX;
+	// The y-coordinate of every drop, in camera coordinates
+	private final float[] dropY;
+	// The vertical velocity of every drop
+	private final float[] dropVelocity;
+	// The age of every drop in seconds, LIFETIME or more once the drop is dead
+	private final float[] dropAge;
+	// Ground height at a world x-coordinate, null to let drops fall through the ground
+	private final FloatUnaryOperator groundHeightAt;
+	// The world coordinates of the top-left corner of the camera
+	private final Supplier<Vector2> cameraTopLeft;
+	// The slot of the oldest drop that may be alive
+	private int first;
+	// Number of slots from first on that may hold live drops
+	private int count;
+
+	/**
+	 * Constructor for Rain.
+	 *
+	 * @param windowDimensions the dimensions of the game window the rain is drawn over
+	 * @param groundHeightAt   the ground height at a world x-coordinate, used to remove drops
+	 *                         reaching the ground, or null to let them fade out anywhere
+	 * @param cameraTopLeft    the world coordinates of the top-left corner of the camera
+	 */
+	public Rain(Vector2 windowDimensions, FloatUnaryOperator groundHeightAt,
+				Supplier<Vector2> cameraTopLeft) {
+		super(Vector2.ZERO, windowDimensions, null);
+		this.dropX = new float[CAPACITY];
+		this.dropY = new float[CAPACITY];
+		this.dropVelocity = new float[CAPACITY];
+		this.dropAge = new float[CAPACITY];
+		this.groundHeightAt = groundHeightAt;
+		this.cameraTopLeft = cameraTopLeft;
+		this.first = 0;
+		this.count = 0;
+		this.renderer().setRenderable(new DropsRenderable());
+		this.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+	}
+
+	/*
+	 * Creates the drop color at every opacity level.
+	 */
+	private static Color[] createFadeColors() {
+		Color[] colors = new Color[OPACITY_LEVELS];
+		for (int i = 0; i < OPACITY_LEVELS; i++) {
+			colors[i] = new Color(DROP_COLOR.getRed(), DROP_COLOR.getGreen(), DROP_COLOR.getBlue(),
+					Math.round((float) MAX_CHANNEL * i / (OPACITY_LEVELS - 1)));
+		}
+		return colors;
+	}
+
+	/**
+	 * Starts a new drop with its top-left corner at the given position, replacing the
+	 * oldest drop if the rain is full.
+	 *
+	 * @param x the x-coordinate of the drop, in camera coordinates
+	 * @param y the y-coordinate of the drop, in camera coordinates
+	 */
+	public void spawn(float x, float y) {
+		int slot = (this.first + this.count) % CAPACITY;
+		if (this.count == CAPACITY) {
+			this.first = (this.first + 1) % CAPACITY;
+		} else {
+			this.count++;
+		}
+		this.dropX[slot] = x;
+		this.dropY[slot] = y;
+		this.dropVelocity[slot] = 0;
+		this.dropAge[slot] = 0;
+	}
+
+	/**
+	 * Returns the number of slots that may hold live drops.
+	 *
+	 * @return an upper bound on the number of live drops
+	 */
+	public int dropCount() {
+		return this.count;
+	}
+
+	@Override
+	/**
+	 * Makes every live drop fall and age, and removes the ones that died.
+	 *
+	 * @param deltaTime The time elapsed, in seconds, since the last frame.
+	 */
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		if (this.count == 0) {
+			return;
+		}
+		Vector2 camera = this.groundHeightAt != null ? this.cameraTopLeft.get() : null;
+		for (int i = 0; i < this.count; i++) {
+			int slot = (this.first + i) % CAPACITY;
+			if (this.dropAge[slot] >= LIFETIME) {
+				continue;
+			}
+			this.dropVelocity[slot] += GRAVITY * deltaTime;
+			this.dropY[slot] += this.dropVelocity[slot] * deltaTime;
+			this.dropAge[slot] += deltaTime;
+			if (camera != null && this.reachedGround(slot, camera)) {
+				this.dropAge[slot] = LIFETIME;
+			}
+		}
+		// forget the dead drops at the old end of the ring
+		while (this.count > 0 && this.dropAge[this.first] >= LIFETIME) {
+			this.first = (this.first + 1) % CAPACITY;
+			this.count--;
+		}
+	}
+
+	/*
+	 * Checks whether the bottom of a drop reached the ground of the block column under it.
+	 */
+	private boolean reachedGround(int slot, Vector2 camera) {
+		float worldX = this.dropX[slot] + camera.x();
+		float columnX = (float) Math.floor(worldX / Block.SIZE) * Block.SIZE;
+		return this.dropY[slot] + DROP_SIZE + camera.y() >= this.groundHeightAt.applyAsFloat(columnX);
+	}
+
+	/*
+	 * Returns the color a drop of the given age is drawn with, fading out with a cubic ease.
+	 */
+	private static Color fadeColor(float age) {
+		float t = Math.min(1, age / LIFETIME);
+		float opacity = 1 - t * t * (EASE_SQUARE - EASE_CUBE * t);
+		return FADE_COLORS[Math.round(opacity * (OPACITY_LEVELS - 1))];
+	}
+
+	/*
+	 * Draws all the live drops of the rain.
+	 */
+	private final class DropsRenderable implements Renderable {
+		@Override
+		/*
+		 * Draws every live drop relative to the top-left corner of the rain.
+		 */
+		public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+						   double degreesCounterClockwise, boolean isFlippedHorizontally,
+						   boolean isFlippedVertically, double opaqueness) {
+			for (int i = 0; i < count; i++) {
+				int slot = (first + i) % CAPACITY;
+				if (dropAge[slot] < LIFETIME) {
+					g.setColor(fadeColor(dropAge[slot]));
+					g.fillRect(Math.round(topLeftCorner.x() + dropX[slot]),
+							Math.round(topLeftCorner.y() + dropY[slot]), DROP_SIZE, DROP_SIZE);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package pepse.world.AvatarJumpObserver;
+
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The clouds drifting over the sky, and the rain they drop when the avatar jumps.
+ * <p>
+ * The first cloud is the full-size cloud near the top of the window. Every other cloud
+ * gets a random depth: a farther cloud is smaller, slower and placed anywhere in the
+ * upper part of the window, so many clouds give the sky some parallax. Every cloud is a
+ * single object moving itself, so the weather costs one update per cloud. The clouds are
+ * listed from the farthest to the nearest, the order they should be drawn in.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class Weather implements AvatarJumpObserver {
+	// Y-coordinate height at which the nearest cloud is drawn
+	private static final int CLOUD_HEIGHT = 10;
+	// Horizontal speed of the nearest cloud in pixels per second
+	private static final float NEAREST_SPEED = 29.5f;
+	// Scale of the farthest clouds
+	private static final float FARTHEST_SCALE = 0.4f;
+	// Part of the window height the far clouds are spread over
+	private static final float SKY_FRACTION = 0.25f;
+
+	// The particle system the drops of all the clouds fall in
+	private final Rain rain;
+	// Chooses the depths and positions of the clouds, and where drops fall from
+	private final Random random;
+	// The width of the window the clouds cross
+	private final float windowWidth;
+	// The clouds, from the farthest to the nearest
+	private final List<Cloud> clouds;
+
+	/**
+	 * Constructor for Weather.
+	 *
+	 * @param windowDimensions the dimensions of the game window
+	 * @param rain             the particle system the drops of the clouds fall in
+	 * @param cloudCount       the number of clouds, at least one
+	 */
+	public Weather(Vector2 windowDimensions, Rain rain, int cloudCount) {
+		this.rain = rain;
+		this.random = new Random();
+		this.windowWidth = windowDimensions.x();
+		float[] scales = new float[Math.max(0, cloudCount - 1)];
+		for (int i = 0; i < scales.length; i++) {
+			scales[i] = FARTHEST_SCALE + (1 - FARTHEST_SCALE) * this.random.nextFloat();
+		}
+		Arrays.sort(scales);
+		List<Cloud> created = new ArrayList<>();
+		for (float scale : scales) {
+			float x = Cloud.startX(scale)
+					+ this.random.nextFloat() * (this.windowWidth - Cloud.startX(scale));
+			float y = this.random.nextFloat() * windowDimensions.y() * SKY_FRACTION;
+			created.add(new Cloud(new Vector2(x, y), scale, NEAREST_SPEED * scale, this));
+		}
+		created.add(new Cloud(new Vector2(Cloud.startX(1), CLOUD_HEIGHT), 1, NEAREST_SPEED, this));
+		this.clouds = Collections.unmodifiableList(created);
+	}
+
+	/**
+	 * Returns the clouds, from the farthest to the nearest.
+	 *
+	 * @return an unmodifiable list of the clouds
+	 */
+	public List<Cloud> getClouds() {
+		return this.clouds;
+	}
+
+	/**
+	 * Returns the particle system the drops of the clouds fall in.
+	 *
+	 * @return the rain
+	 */
+	public Rain getRain() {
+		return this.rain;
+	}
+
+	/**
+	 * Returns the random generator choosing where drops fall from.
+	 *
+	 * @return the random generator of the weather
+	 */
+	public Random getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * Returns the width of the window the clouds cross.
+	 *
+	 * @return the window width in pixels
+	 */
+	public float getWindowWidth() {
+		return this.windowWidth;
+	}
+
+	@Override
+	/**
+	 * Called when the avatar jumps. Makes every cloud rain.
+	 */
+	public void updateWhenJump() {
+		for (Cloud cloud : this.clouds) {
+			cloud.updateWhenJump();
+		}
+	}
+}
@@ -1,18 +1,23 @@
 package pepse.world;
 
-import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
 
 /**
  * Represents a single block in the terrain.
  * Blocks are square, immovable, and can be rendered with a given texture or color.
+ * Ground blocks are pooled: obtain reuses a block of an evicted chunk when there is one.
  * @author Eliyahu Peretz & Rom Ilany
  */
-public class Block extends GameObject {
+public class Block extends KindedObject {
 	/** The width and height of a single block in pixels. */
 	public static final int SIZE = 30;
+	// Maximal number of ground blocks kept for reuse, enough for a few chunks
+	private static final int POOL_CAPACITY = 2048;
+	// Ground blocks removed from the game, waiting to be reused
+	private static final ObjectPool<Block> POOL = new ObjectPool<>(POOL_CAPACITY);
 
 	/**
 	 * Construct a new GameObject instance.
@@ -23,7 +28,56 @@ public class Block extends GameObject {
 	 *                      the GameObject will not be rendered.
 	 */
 	public Block(Vector2 topLeftCorner, Renderable renderable) {
-		super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+		this(topLeftCorner, renderable, ObjectKind.BLOCK);
+	}
+
+	/**
+	 * Returns a ground block at the given position, reusing a pooled block if there is
+	 * one. May be called from any thread.
+	 *
+	 * @param topLeftCorner Position of the block, in window coordinates (pixels).
+	 * @param renderable    The renderable representing the block. Can be null, in which case
+	 *                      the block will not be rendered.
+	 * @return a ground block at the given position
+	 */
+	public static Block obtain(Vector2 topLeftCorner, Renderable renderable) {
+		Block block = POOL.acquire();
+		if (block == null) {
+			return new Block(topLeftCorner, renderable);
+		}
+		block.setTopLeftCorner(topLeftCorner);
+		block.renderer().setRenderable(renderable);
+		return block;
+	}
+
+	/**
+	 * Returns the number of ground blocks waiting to be reused.
+	 *
+	 * @return the number of pooled blocks
+	 */
+	public static int pooledCount() {
+		return POOL.size();
+	}
+
+	@Override
+	/**
+	 * Puts the block back into the pool of ground blocks.
+	 */
+	protected void recycle() {
+		POOL.release(this);
+	}
+
+	/**
+	 * Construct a new block of another kind than a ground block.
+	 *
+	 * @param topLeftCorner Position of the object, in window coordinates (pixels).
+	 *                      Note that (0,0) is the top-left corner of the window.
+	 * @param renderable    The renderable representing the object. Can be null, in which case
+	 *                      the GameObject will not be rendered.
+	 * @param kind          The kind of the block.
+	 */
+	protected Block(Vector2 topLeftCorner, Renderable renderable, ObjectKind kind) {
+		super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable, kind);
 		physics().preventIntersectionsFromDirection(Vector2.ZERO);
 		physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
 
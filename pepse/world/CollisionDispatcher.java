@@ -0,0 +1,59 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.Collision;
+
+/**
+ * A table of collision handlers keyed by the kinds of the two colliding objects.
+ * <p>
+ * Every class registers the handlers of its own kind once, when it is loaded. A collision
+ * then costs two array reads to find its handler, with no tag comparison. The kinds stand
+ * for the classes the handlers are written for: AVATAR for Avatar, BLOCK for Block, FRUIT
+ * for Fruit and so on, which is what makes the handler types safe.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class CollisionDispatcher {
+	// Number of object kinds
+	private static final int KINDS = ObjectKind.values().length;
+	// The handler of every pair of kinds, by the ordinals of the receiving and other kind
+	private static final CollisionHandler<?, ?>[][] HANDLERS = new CollisionHandler<?, ?>[KINDS][KINDS];
+
+	/*
+	 * No instances, the table is shared by all the objects.
+	 */
+	private CollisionDispatcher() {
+	}
+
+	/**
+	 * Registers the handler called when an object of one kind collides with an object of
+	 * another kind, replacing the one registered before, if any.
+	 *
+	 * @param selfKind  the kind of the object receiving the collision
+	 * @param otherKind the kind of the object it collides with
+	 * @param handler   the handler, written for the classes of the two kinds
+	 * @param <S>       the class of the objects of selfKind
+	 * @param <O>       the class of the objects of otherKind
+	 */
+	public static synchronized <S extends KindedObject, O extends GameObject> void register(
+			ObjectKind selfKind, ObjectKind otherKind, CollisionHandler<S, O> handler) {
+		HANDLERS[selfKind.ordinal()][otherKind.ordinal()] = handler;
+	}
+
+	/**
+	 * Runs the handler registered for the kinds of two colliding objects, if any.
+	 *
+	 * @param self      the object receiving the collision
+	 * @param other     the object it collided with
+	 * @param collision the collision information
+	 */
+	@SuppressWarnings("unchecked")
+	public static void dispatch(KindedObject self, GameObject other, Collision collision) {
+		CollisionHandler<KindedObject, GameObject> handler =
+				(CollisionHandler<KindedObject, GameObject>)
+						HANDLERS[self.getKind().ordinal()][KindedObject.kindOf(other).ordinal()];
+		if (handler != null) {
+			handler.onCollision(self, other, collision);
+		}
+	}
+}
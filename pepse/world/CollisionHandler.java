@@ -0,0 +1,23 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.Collision;
+
+/**
+ * Reacts to an object of one kind colliding with an object of another kind.
+ *
+ * @param <S> the class of the objects of the kind receiving the collision
+ * @param <O> the class of the objects of the kind it collided with
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+@FunctionalInterface
+public interface CollisionHandler<S extends KindedObject, O extends GameObject> {
+	/**
+	 * Called when self collides with other.
+	 *
+	 * @param self      the object receiving the collision
+	 * @param other     the object it collided with
+	 * @param collision the collision information
+	 */
+	void onCollision(S self, O other, Collision collision);
+}
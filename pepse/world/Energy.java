@@ -4,28 +4,24 @@ import danogl.GameObject;
 import danogl.gui.rendering.Renderable;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
-
-import java.util.function.Supplier;
+import pepse.hud.HudText;
+import pepse.world.events.AvatarEvent;
+import pepse.world.events.AvatarListener;
 
 /**
  * Represents an energy display UI element in the game.
- * The energy value is dynamically updated and shown
- * as a percentage on the screen.
+ * The energy value is shown as a percentage on the screen, and the text is
+ * changed only when an energy event of the avatar reports a new value, to one of
+ * the cached HUD texts.
  *
  * @author Eliyahu Peretz & Rom Ilany
  */
-public class Energy extends GameObject {
-	// A suffix used to indicate percentage
-	// in the energy display
-	private static final String PRECENT = "%";
-	//A callback function that returns
-	// the current energy level of the avatar.
-	// Used to dynamically update the displayed
-	// energy percentage.
-	private Supplier<Integer> energy;
+public class Energy extends GameObject implements AvatarListener {
 	// The text renderable that displays
 	// the energy percentage on screen.
 	private TextRenderable renderable;
+	// The text shown now
+	private String shown;
 
 	/**
 	 * Construct a new GameObject instance.
@@ -35,24 +31,25 @@ public class Energy extends GameObject {
 	 * @param dimensions    Width and height in window coordinates.
 	 * @param renderable    The renderable representing the object. Can be null, in which case
 	 *                      the GameObject will not be rendered.
-	 * @param energy        callback that return avatar energy
 	 */
-	public Energy(Vector2 topLeftCorner, Vector2 dimensions,
-				  TextRenderable renderable, Supplier<Integer> energy) {
+	public Energy(Vector2 topLeftCorner, Vector2 dimensions, TextRenderable renderable) {
 		super(topLeftCorner, dimensions, renderable);
 		this.renderable = renderable;
-		this.energy = energy;
+		this.shown = null;
 	}
 
 	@Override
 	/**
-	 * Updates the displayed energy percentage based on the current energy value.
+	 * Updates the displayed energy percentage to the new energy of the avatar.
 	 *
-	 * @param deltaTime Time passed since the last frame (in seconds).
+	 * @param event the energy event of the avatar
 	 */
-	public void update(float deltaTime) {
-		super.update(deltaTime);
-		this.renderable.setString(Integer.toString(this.energy.get()) + PRECENT);
+	public void onAvatarEvent(AvatarEvent event) {
+		String text = HudText.percent(event.getValue());
+		if (text != this.shown) {
+			this.shown = text;
+			this.renderable.setString(text);
+		}
 	}
 
 
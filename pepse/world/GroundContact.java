@@ -0,0 +1,80 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.components.Component;
+import danogl.util.Vector2;
+
+/**
+ * A component that resolves the ground contact of a falling object against a
+ * HeightField instead of colliding with terrain blocks.
+ * <p>
+ * An object sinking below the highest column under it is put back on top of it and
+ * its vertical velocity is cleared, exactly like landing on a block. A horizontal move
+ * into a column whose top is above the object's feet is undone, so the columns still
+ * act as walls.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class GroundContact implements Component {
+	// Pixels trimmed from each side of the object so touching a column is not standing on it
+	private static final float EDGE_INSET = 1f;
+	// Pixels a column may rise above the feet before it blocks horizontal movement
+	private static final float WALL_TOLERANCE = 1f;
+
+	// The object that lands on the ground
+	private final GameObject body;
+	// The column heights of the ground
+	private final HeightField heightField;
+	// The left edge of the object after the previous update
+	private float lastX;
+	// The bottom of the object after the previous update
+	private float lastBottom;
+
+	/**
+	 * Constructor for GroundContact.
+	 *
+	 * @param body        the object that lands on the ground
+	 * @param heightField the column heights of the ground
+	 */
+	public GroundContact(GameObject body, HeightField heightField) {
+		this.body = body;
+		this.heightField = heightField;
+		this.lastX = body.getTopLeftCorner().x();
+		this.lastBottom = body.getTopLeftCorner().y() + body.getDimensions().y();
+	}
+
+	@Override
+	/**
+	 * Pushes the object out of the ground after it moved this frame.
+	 *
+	 * @param deltaTime Time elapsed since the last frame (in seconds).
+	 */
+	public void update(float deltaTime) {
+		Vector2 topLeft = this.body.getTopLeftCorner();
+		float width = this.body.getDimensions().x();
+		float height = this.body.getDimensions().y();
+		float x = topLeft.x();
+		float bottom = topLeft.y() + height;
+		if (x != this.lastX &&
+				this.groundUnder(x, width) < this.lastBottom - WALL_TOLERANCE) {
+			// walked into a column higher than the feet
+			x = this.lastX;
+			this.body.transform().setTopLeftCornerX(x);
+		}
+		float ground = this.groundUnder(x, width);
+		if (bottom > ground && this.body.getVelocity().y() >= 0) {
+			this.body.transform().setTopLeftCornerY(ground - height);
+			this.body.transform().setVelocityY(0);
+			bottom = ground;
+		}
+		this.lastX = x;
+		this.lastBottom = bottom;
+	}
+
+	/*
+	 * Returns the top of the highest column under the object when its left edge is at x.
+	 */
+	private float groundUnder(float x, float width) {
+		return this.heightField.highestGroundUnder(x + EDGE_INSET, x + width - EDGE_INSET);
+	}
+}
@@ -0,0 +1,119 @@
+package pepse.world;
+
+/**
+ * A bounded cache of ground heights keyed by block column.
+ * <p>
+ * Columns are grouped into segments of SEGMENT_COLUMNS consecutive columns, and a
+ * missing segment is computed as a whole into a primitive float array. Segments are
+ * kept in a set-associative table: every segment index maps to one set of WAYS slots,
+ * and a miss replaces the least recently used slot of its set. All the slots are
+ * allocated up front, so hits never allocate. The cache is safe to use from several
+ * threads, and a missing segment is computed outside the lock so threads generating
+ * different parts of the world do not wait for each other.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+class HeightCache {
+	// Number of consecutive columns computed and stored together
+	private static final int SEGMENT_COLUMNS = 64;
+	// Number of sets in the table, must be a power of two
+	private static final int SETS = 64;
+	// Number of slots in each set
+	private static final int WAYS = 4;
+
+	/**
+	 * Computes the ground heights of a run of consecutive columns on a cache miss.
+	 */
+	interface ColumnHeights {
+		/**
+		 * Computes the ground heights of consecutive columns.
+		 *
+		 * @param firstColumn the index of the first column, its x-coordinate divided by
+		 *                    Block.SIZE
+		 * @param heights     receives the height of every column, from left to right
+		 */
+		void computeHeights(int firstColumn, float[] heights);
+	}
+
+	// Computes the heights of missing segments
+	private final ColumnHeights source;
+	// The segment index held by every slot
+	private final int[] slotSegments;
+	// When every slot was last used, 0 for an empty slot
+	private final long[] slotLastUse;
+	// The heights of the segment held by every slot
+	private final float[][] slotHeights;
+	// Increases on every lookup, used to order slots by recent use
+	private long clock;
+
+	/**
+	 * Constructor for HeightCache.
+	 *
+	 * @param source computes the heights of missing segments
+	 */
+	HeightCache(ColumnHeights source) {
+		this.source = source;
+		this.slotSegments = new int[SETS * WAYS];
+		this.slotLastUse = new long[SETS * WAYS];
+		this.slotHeights = new float[SETS * WAYS][SEGMENT_COLUMNS];
+		this.clock = 0;
+	}
+
+	/**
+	 * Returns the ground height of a column, computing its segment if it is missing.
+	 *
+	 * @param column the index of the column
+	 * @return the ground height of the column
+	 */
+	float heightAt(int column) {
+		int segment = Math.floorDiv(column, SEGMENT_COLUMNS);
+		int offset = column - segment * SEGMENT_COLUMNS;
+		synchronized (this) {
+			int slot = this.find(segment);
+			if (slot >= 0) {
+				return this.slotHeights[slot][offset];
+			}
+		}
+		float[] heights = new float[SEGMENT_COLUMNS];
+		this.source.computeHeights(segment * SEGMENT_COLUMNS, heights);
+		synchronized (this) {
+			this.store(segment, heights);
+		}
+		return heights[offset];
+	}
+
+	/*
+	 * Returns the slot holding a segment and marks it as used, or -1 if it is missing.
+	 */
+	private int find(int segment) {
+		int first = (segment & (SETS - 1)) * WAYS;
+		this.clock++;
+		for (int slot = first; slot < first + WAYS; slot++) {
+			if (this.slotLastUse[slot] != 0 && this.slotSegments[slot] == segment) {
+				this.slotLastUse[slot] = this.clock;
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Stores the heights of a segment in the least recently used slot of its set,
+	 * unless another thread stored it in the meantime.
+	 */
+	private void store(int segment, float[] heights) {
+		if (this.find(segment) >= 0) {
+			return;
+		}
+		int first = (segment & (SETS - 1)) * WAYS;
+		int victim = first;
+		for (int slot = first + 1; slot < first + WAYS; slot++) {
+			if (this.slotLastUse[slot] < this.slotLastUse[victim]) {
+				victim = slot;
+			}
+		}
+		System.arraycopy(heights, 0, this.slotHeights[victim], 0, SEGMENT_COLUMNS);
+		this.slotSegments[victim] = segment;
+		this.slotLastUse[victim] = this.clock;
+	}
+}
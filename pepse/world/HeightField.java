@@ -0,0 +1,97 @@
+package pepse.world;
+
+/**
+ * A column height array of the loaded part of the world.
+ * <p>
+ * For every loaded chunk it keeps the y-coordinate of the top of each ground column,
+ * built from Terrain.groundHeightAt, so ground contact can be resolved with a couple of
+ * array reads instead of colliding with every terrain block. Chunks are stored in a
+ * small ring indexed by chunk index, which holds any contiguous range of loaded chunks
+ * shorter than the ring without collisions. Columns outside the loaded chunks fall back
+ * to the terrain itself.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class HeightField {
+	// Number of chunks the ring can hold, must be a power of two
+	private static final int CAPACITY = 32;
+
+	// Computes the columns that are not loaded
+	private final Terrain terrain;
+	// Width of a single chunk in pixels
+	private final int chunkWidth;
+	// The column tops of every stored chunk
+	private final float[][] columnTops;
+	// The chunk index held by every ring slot
+	private final int[] slotChunks;
+
+	/**
+	 * Constructor for HeightField.
+	 *
+	 * @param terrain    computes the columns that are not loaded
+	 * @param chunkWidth width of a single chunk in pixels, a multiple of Block.SIZE
+	 */
+	public HeightField(Terrain terrain, int chunkWidth) {
+		this.terrain = terrain;
+		this.chunkWidth = chunkWidth;
+		this.columnTops = new float[CAPACITY][];
+		this.slotChunks = new int[CAPACITY];
+	}
+
+	/**
+	 * Stores the column tops of a loaded chunk.
+	 *
+	 * @param chunk      the world index of the chunk
+	 * @param columnTops the top of every column of the chunk, from left to right
+	 */
+	public void addChunk(int chunk, float[] columnTops) {
+		int slot = chunk & (CAPACITY - 1);
+		this.slotChunks[slot] = chunk;
+		this.columnTops[slot] = columnTops;
+	}
+
+	/**
+	 * Forgets the column tops of an evicted chunk.
+	 *
+	 * @param chunk the world index of the chunk
+	 */
+	public void removeChunk(int chunk) {
+		int slot = chunk & (CAPACITY - 1);
+		if (this.slotChunks[slot] == chunk) {
+			this.columnTops[slot] = null;
+		}
+	}
+
+	/**
+	 * Returns the y-coordinate of the top of the ground column containing x.
+	 *
+	 * @param x an x-coordinate in world coordinates
+	 * @return the top of the ground column containing x
+	 */
+	public float groundTopAt(float x) {
+		int column = (int) Math.floor(x / Block.SIZE);
+		int chunk = Math.floorDiv(column * Block.SIZE, this.chunkWidth);
+		int slot = chunk & (CAPACITY - 1);
+		float[] tops = this.columnTops[slot];
+		if (tops == null || this.slotChunks[slot] != chunk) {
+			return this.terrain.groundTopAt(x);
+		}
+		return tops[column - chunk * (this.chunkWidth / Block.SIZE)];
+	}
+
+	/**
+	 * Returns the highest ground top (the smallest y) under a horizontal span.
+	 *
+	 * @param minX the left edge of the span
+	 * @param maxX the right edge of the span
+	 * @return the top of the highest ground column under the span
+	 */
+	public float highestGroundUnder(float minX, float maxX) {
+		float top = Float.MAX_VALUE;
+		float x = (float) Math.floor(minX / Block.SIZE) * Block.SIZE;
+		for (; x < maxX; x += Block.SIZE) {
+			top = Math.min(top, this.groundTopAt(x));
+		}
+		return top;
+	}
+}
@@ -0,0 +1,90 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.Collision;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A game object of a known ObjectKind. Its collisions are handed to the
+ * CollisionDispatcher, which runs the handler registered for the kinds of the two
+ * objects, if any.
+ * <p>
+ * Kinds of objects that are created in large numbers for every chunk are pooled: their
+ * class overrides recycle to put an object that left the game back into a pool.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class KindedObject extends GameObject {
+	// The kind of the object
+	private final ObjectKind kind;
+
+	/**
+	 * Construct a new KindedObject instance.
+	 *
+	 * @param topLeftCorner Position of the object, in window coordinates (pixels).
+	 *                      Note that (0,0) is the top-left corner of the window.
+	 * @param dimensions    Width and height in window coordinates.
+	 * @param renderable    The renderable representing the object. Can be null, in which case
+	 *                      the GameObject will not be rendered.
+	 * @param kind          The kind of the object.
+	 */
+	public KindedObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable,
+						ObjectKind kind) {
+		super(topLeftCorner, dimensions, renderable);
+		this.kind = kind;
+	}
+
+	/**
+	 * Returns the kind of the object.
+	 *
+	 * @return the kind of the object
+	 */
+	public ObjectKind getKind() {
+		return this.kind;
+	}
+
+	/**
+	 * Returns the kind of any game object.
+	 *
+	 * @param gameObject the game object
+	 * @return the kind of the object, OTHER if it was not given one
+	 */
+	public static ObjectKind kindOf(GameObject gameObject) {
+		if (gameObject instanceof KindedObject kinded) {
+			return kinded.kind;
+		}
+		return ObjectKind.OTHER;
+	}
+
+	/**
+	 * Puts an object that was removed from the game back into the pool of its class, if
+	 * its class is pooled.
+	 *
+	 * @param gameObject the removed object, which must not be used by its owner anymore
+	 */
+	public static void recycle(GameObject gameObject) {
+		if (gameObject instanceof KindedObject kinded) {
+			kinded.recycle();
+		}
+	}
+
+	/**
+	 * Puts the object, which was removed from the game, back into the pool of its class.
+	 * Objects of classes that are not pooled are left to the garbage collector.
+	 */
+	protected void recycle() {
+	}
+
+	@Override
+	/**
+	 * Runs the collision handler registered for the kinds of the two objects, if any.
+	 *
+	 * @param other     The other GameObject involved in the collision.
+	 * @param collision The collision information.
+	 */
+	public void onCollisionEnter(GameObject other, Collision collision) {
+		super.onCollisionEnter(other, collision);
+		CollisionDispatcher.dispatch(this, other, collision);
+	}
+}
@@ -0,0 +1,24 @@
+package pepse.world;
+
+/**
+ * The kinds of game objects in the world, used to choose what happens when two objects
+ * collide and which layer an object is added to, without comparing tags.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public enum ObjectKind {
+	/** Any object that was not given a kind. */
+	OTHER,
+	/** The player-controlled avatar. */
+	AVATAR,
+	/** A ground block. */
+	BLOCK,
+	/** A single image drawing the ground of a chunk. */
+	GROUND_IMAGE,
+	/** The root of a tree. */
+	ROOT,
+	/** A leaf of a tree. */
+	LEAF,
+	/** A fruit hanging on a tree. */
+	FRUIT
+}
@@ -1,14 +1,21 @@
 package pepse.world;
 
+import danogl.GameObject;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 
+import pepse.util.ColorPalette;
 import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents the terrain of the world,
@@ -20,6 +27,8 @@ public class Terrain {
 
 	// color for ground block
 	private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
+	// shared approximations of the ground color, picked by block position
+	private static final ColorPalette GROUND_PALETTE = ColorSupplier.palette(BASE_GROUND_COLOR);
 	//private static final Color BASE_GROUND_COLOR = Color.BLACK;
 	// amount of block beneath the top
 	private static final int TERRAIN_DEPTH = 20;
@@ -32,6 +41,12 @@ public class Terrain {
 	// Used in the ratio 2/3 for
 	// initial ground height.
 	private static final int TWO = 2;
+	// Number of baked ground ranges kept for reuse
+	private static final int BAKED_CACHE_SIZE = 32;
+	// Initial capacity of the baked ground cache
+	private static final int CACHE_INITIAL_CAPACITY = 16;
+	// Load factor of the baked ground cache
+	private static final float CACHE_LOAD_FACTOR = 0.75f;
 	//The base height of the ground at x=0
 	private final float groundHeightAtX0;
 
@@ -41,6 +56,10 @@ public class Terrain {
 	// A noise generator used to create
 	// pseudo-random but smooth terrain variations.
 	private final NoiseGenerator noiseGenerator;
+	// The ground heights of recently used block columns
+	private final HeightCache heightCache;
+	// Rasterized ground ranges by their minimal x-coordinate, least recently used first
+	private final Map<Integer, BakedGround> bakedGround;
 
 
 	/**
@@ -55,6 +74,15 @@ public class Terrain {
 		this.windowDimensions = windowDimensions;
 		this.groundHeightAtX0 = windowDimensions.mult((float) TWO / THREE).y();
 		this.noiseGenerator = new NoiseGenerator(seed, (int) groundHeightAtX0);
+		this.heightCache = new HeightCache(this::computeColumnHeights);
+		this.bakedGround = Collections.synchronizedMap(
+				new LinkedHashMap<>(CACHE_INITIAL_CAPACITY, CACHE_LOAD_FACTOR, true) {
+					// evict the least recently used range once the cache is full
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<Integer, BakedGround> eldest) {
+						return size() > BAKED_CACHE_SIZE;
+					}
+				});
 
 	}
 
@@ -64,12 +92,33 @@ public class Terrain {
 	 * If x is not 0, it uses a noise generator to add a variation based on the noise
 	 * function evaluated at (x, Block.SIZE * 7). This introduces fluent randomness to the height.
 	 * If x is 0, it returns the base ground height without noise.
+	 * The heights of block columns (x on the block grid) are cached, so repeated queries
+	 * for them are array reads.
 	 *
 	 * @param x the x-coordinate to compute the ground height for
 	 * @return the computed ground height at the given x-coordinate
 	 */
 	public float groundHeightAt(float x) {
+		int column = (int) (x / Block.SIZE);
+		if (column * Block.SIZE == x) {
+			return this.heightCache.heightAt(column);
+		}
+		return this.computeGroundHeight(x);
+	}
 
+	/*
+	 * Computes the ground heights of consecutive block columns, on a cache miss.
+	 */
+	private void computeColumnHeights(int firstColumn, float[] heights) {
+		for (int i = 0; i < heights.length; i++) {
+			heights[i] = this.computeGroundHeight((firstColumn + i) * Block.SIZE);
+		}
+	}
+
+	/*
+	 * Computes the ground height at x from the noise generator.
+	 */
+	private float computeGroundHeight(float x) {
 		if (x != 0) {
 			// Generate noise value at the given x and a fixed y-coordinate (Block.SIZE * 7)
 			float noise = (float) this.noiseGenerator.noise(x, Block.SIZE * SEVEN);
@@ -81,6 +130,33 @@ public class Terrain {
 	}
 
 
+	/**
+	 * Returns the y-coordinate of the top block of the ground column containing x,
+	 * which is the ground height rounded down to the block grid.
+	 *
+	 * @param x the x-coordinate to compute the column top for
+	 * @return the top of the ground column containing x
+	 */
+	public float groundTopAt(float x) {
+		float columnX = (float) Math.floor(x / Block.SIZE) * Block.SIZE;
+		return (float) (Math.floor(groundHeightAt(columnX) / Block.SIZE) * Block.SIZE);
+	}
+
+	/**
+	 * Returns the top of every ground column within a specified horizontal range.
+	 *
+	 * @param minX the minimum x-coordinate (inclusive) of the range, on the block grid
+	 * @param maxX the maximum x-coordinate (exclusive) of the range, on the block grid
+	 * @return the column tops from left to right, one per block
+	 */
+	public float[] columnTopsInRange(int minX, int maxX) {
+		float[] tops = new float[(maxX - minX) / Block.SIZE];
+		for (int i = 0; i < tops.length; i++) {
+			tops[i] = groundTopAt(minX + i * Block.SIZE);
+		}
+		return tops;
+	}
+
 	/**
 	 * Creates a list of ground blocks within a specified horizontal range.
 	 * <p>
@@ -93,34 +169,133 @@ public class Terrain {
 	 * @return a list of objects representing the ground in the specified range
 	 */
 	public List<Block> createInRange(int minX, int maxX) {
+		return this.createBlocks(minX, maxX, true);
+	}
+
+	/**
+	 * Creates the ground blocks of a range whose column tops were computed earlier by
+	 * columnTopsInRange, without evaluating any ground height.
+	 *
+	 * @param minX       the minimum x-coordinate (inclusive) of the range, on the block grid
+	 * @param columnTops the top of every ground column of the range, from left to right
+	 * @return a list of objects representing the ground in the range
+	 */
+	public List<Block> createInRange(int minX, float[] columnTops) {
+		return this.createBlocks(minX, columnTops, true);
+	}
+
+	/**
+	 * Creates invisible ground blocks of a range whose column tops were computed earlier
+	 * by columnTopsInRange. Used to keep colliding with the ground while it is drawn by a
+	 * baked chunk.
+	 *
+	 * @param minX       the minimum x-coordinate (inclusive) of the range, on the block grid
+	 * @param columnTops the top of every ground column of the range, from left to right
+	 * @return a list of invisible blocks representing the ground in the range
+	 */
+	public List<Block> createCollidersInRange(int minX, float[] columnTops) {
+		return this.createBlocks(minX, columnTops, false);
+	}
+
+	/**
+	 * Creates a single object drawing the ground of a range whose column tops were
+	 * computed earlier by columnTopsInRange.
+	 * <p>
+	 * The blocks of the range are rasterized once into an image, each with the same
+	 * approximated ground color it gets as a block, and the image is cached by range so
+	 * an evicted chunk that is loaded again reuses it.
+	 *
+	 * @param minX       the minimum x-coordinate (inclusive) of the range, on the block grid
+	 * @param columnTops the top of every ground column of the range, from left to right
+	 * @return an object drawing the ground in the range
+	 */
+	public GameObject createBakedInRange(int minX, float[] columnTops) {
+		BakedGround baked = this.bakedGround.get(minX);
+		if (baked == null || baked.width != columnTops.length * Block.SIZE) {
+			baked = this.bake(minX, columnTops);
+			this.bakedGround.put(minX, baked);
+		}
+		return new KindedObject(new Vector2(minX, baked.top),
+				new Vector2(baked.width, baked.height), baked.renderable, ObjectKind.GROUND_IMAGE);
+	}
+
+	/*
+	 * Creates the columns of blocks in the range, with or without renderables.
+	 */
+	private List<Block> createBlocks(int minX, int maxX, boolean visible) {
 		// Adjust minX and maxX to align with block boundaries
 		int newMinX = (int) Math.floor((double) minX / Block.SIZE) * Block.SIZE;
 		int newMaxX = (int) Math.ceil((double) maxX / Block.SIZE) * Block.SIZE;
+		return this.createBlocks(newMinX, this.columnTopsInRange(newMinX, newMaxX), visible);
+	}
 
-		//RectangleRenderable groundRenderable =
-		//		new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR));
-		RectangleRenderable groundRenderable;
+	/*
+	 * Creates the columns of blocks under the given column tops, with or without renderables.
+	 */
+	private List<Block> createBlocks(int minX, float[] columnTops, boolean visible) {
 		List<Block> groundList = new ArrayList<>();
 
-		// Loop over x positions in the adjusted range, step by block size
-		for (int i = newMinX; i < newMaxX; i += Block.SIZE) {
-			groundRenderable =
-					new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR));
-			int blockHeight = (int) (Math.floor(groundHeightAt(i) / Block.SIZE) * Block.SIZE);
+		// Loop over the columns of the range, step by block size
+		for (int column = 0; column < columnTops.length; column++) {
+			int i = minX + column * Block.SIZE;
+			int blockHeight = (int) columnTops[column];
 
 			// Create a column of blocks downwards from blockHeight to TERRAIN_DEPTH
 			for (int j = 0; j < TERRAIN_DEPTH; j += 1) {
-				groundRenderable =
-						new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR));
-				groundList.add(new Block(new Vector2(i, j * Block.SIZE + blockHeight),
-						groundRenderable));
-
+				int y = j * Block.SIZE + blockHeight;
+				RectangleRenderable groundRenderable = visible ? GROUND_PALETTE.renderableAt(i, y) : null;
+				groundList.add(Block.obtain(new Vector2(i, y), groundRenderable));
 			}
-
 		}
-
 		return groundList;
+	}
 
+	/*
+	 * Rasterizes the blocks under the given column tops into a single image.
+	 */
+	private BakedGround bake(int minX, float[] tops) {
+		float top = Float.MAX_VALUE;
+		float bottom = -Float.MAX_VALUE;
+		for (float columnTop : tops) {
+			top = Math.min(top, columnTop);
+			bottom = Math.max(bottom, columnTop + TERRAIN_DEPTH * Block.SIZE);
+		}
+		int width = tops.length * Block.SIZE;
+		BufferedImage image = new BufferedImage(width, (int) (bottom - top),
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		for (int column = 0; column < tops.length; column++) {
+			for (int j = 0; j < TERRAIN_DEPTH; j++) {
+				int y = (int) tops[column] + j * Block.SIZE;
+				graphics.setColor(GROUND_PALETTE.colorAt(minX + column * Block.SIZE, y));
+				graphics.fillRect(column * Block.SIZE, y - (int) top, Block.SIZE, Block.SIZE);
+			}
+		}
+		graphics.dispose();
+		return new BakedGround(new ImageRenderable(image), top, width, bottom - top);
 	}
 
+	/*
+	 * A rasterized ground range and where it is drawn.
+	 */
+	private static final class BakedGround {
+		// The image of the ground blocks
+		private final ImageRenderable renderable;
+		// The y-coordinate of the highest column top in the range
+		private final float top;
+		// The width of the range in pixels
+		private final float width;
+		// The height of the image in pixels
+		private final float height;
+
+		/*
+		 * Constructor for BakedGround.
+		 */
+		private BakedGround(ImageRenderable renderable, float top, float width, float height) {
+			this.renderable = renderable;
+			this.top = top;
+			this.width = width;
+			this.height = height;
+		}
+	}
 }
@@ -0,0 +1,117 @@
+package pepse.world.chunks;
+
+import pepse.world.trees.TreeLayout;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The generated content of a chunk before any game object is built for it: the top of
+ * each of its ground columns, the layout of each of its trees, and which of its fruits
+ * were eaten and when they grow back.
+ * <p>
+ * It holds only plain values, so it can be computed on any thread and kept for chunks
+ * that are not loaded.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class ChunkData {
+	// Message of the error raised when the fruit states do not match the trees
+	private static final String FRUIT_MISMATCH = "fruit states do not match the trees";
+
+	// The world index of the chunk
+	private final int chunk;
+	// The top of every ground column of the chunk, from left to right
+	private final float[] columnTops;
+	// The layouts of the trees growing in the chunk, from left to right
+	private final List<TreeLayout> trees;
+	// The eaten fruits of the chunk, numbered in the order of the trees
+	private final FruitStates fruitStates;
+
+	/**
+	 * Constructor for ChunkData.
+	 *
+	 * @param chunk      the world index of the chunk
+	 * @param columnTops the top of every ground column of the chunk, from left to right
+	 * @param trees      the layouts of the trees growing in the chunk
+	 */
+	public ChunkData(int chunk, float[] columnTops, List<TreeLayout> trees) {
+		this(chunk, columnTops, trees, new FruitStates(countFruits(trees)));
+	}
+
+	/**
+	 * Constructor for ChunkData, with some of the fruits eaten.
+	 *
+	 * @param chunk         the world index of the chunk
+	 * @param columnTops    the top of every ground column of the chunk, from left to right
+	 * @param trees         the layouts of the trees growing in the chunk
+	 * @param fruitStates   the eaten fruits of the chunk, numbered in the order of the trees
+	 */
+	public ChunkData(int chunk, float[] columnTops, List<TreeLayout> trees,
+					 FruitStates fruitStates) {
+		if (fruitStates.fruitCount() != countFruits(trees)) {
+			throw new IllegalArgumentException(FRUIT_MISMATCH);
+		}
+		this.chunk = chunk;
+		this.columnTops = columnTops.clone();
+		this.trees = Collections.unmodifiableList(trees);
+		this.fruitStates = fruitStates;
+	}
+
+	/*
+	 * Returns the total number of fruits of the given trees.
+	 */
+	private static int countFruits(List<TreeLayout> trees) {
+		int fruits = 0;
+		for (TreeLayout tree : trees) {
+			fruits += tree.fruitCount();
+		}
+		return fruits;
+	}
+
+	/**
+	 * Returns the world index of the chunk.
+	 *
+	 * @return the chunk index
+	 */
+	public int getChunk() {
+		return this.chunk;
+	}
+
+	/**
+	 * Returns the top of every ground column of the chunk.
+	 *
+	 * @return a copy of the column tops, from left to right
+	 */
+	public float[] getColumnTops() {
+		return this.columnTops.clone();
+	}
+
+	/**
+	 * Returns the layouts of the trees growing in the chunk.
+	 *
+	 * @return an unmodifiable list of the tree layouts, from left to right
+	 */
+	public List<TreeLayout> getTrees() {
+		return this.trees;
+	}
+
+	/**
+	 * Returns which fruits of the chunk were eaten and when they grow back.
+	 *
+	 * @return the states of the fruits, numbered in the order of the trees
+	 */
+	public FruitStates getFruitStates() {
+		return this.fruitStates;
+	}
+
+	/**
+	 * Returns the same chunk with different fruit states.
+	 *
+	 * @param states the eaten fruits of the chunk, numbered in the order of the trees
+	 * @return a copy of this chunk with the given fruit states
+	 */
+	public ChunkData withFruitStates(FruitStates states) {
+		return new ChunkData(this.chunk, this.columnTops, this.trees, states);
+	}
+}
@@ -0,0 +1,85 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A generated chunk: the ChunkData it was built from, and the finished ground and forest
+ * objects that were built for it, ready to be attached to the game by the game thread.
+ * <p>
+ * Only the lists are unmodifiable. The objects are live game objects, built by a worker
+ * thread partly from objects taken out of the shared pools of their classes, and they
+ * are not thread safe: the worker hands them over to the game thread with the descriptor,
+ * and from then on only the game thread may touch them.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class ChunkDescriptor {
+	// The content the chunk was built from
+	private final ChunkData data;
+	// The ground blocks of the chunk, or the object drawing its baked ground
+	private final List<GameObject> ground;
+	// The roots, leaves and fruits of the chunk
+	private final List<GameObject> forest;
+
+	/**
+	 * Constructor for ChunkDescriptor.
+	 *
+	 * @param data   the content the chunk was built from
+	 * @param ground the ground blocks of the chunk, or the object drawing its baked
+	 *               ground together with its invisible colliding blocks
+	 * @param forest the roots, leaves and fruits of the chunk
+	 */
+	public ChunkDescriptor(ChunkData data, List<GameObject> ground, List<GameObject> forest) {
+		this.data = data;
+		this.ground = Collections.unmodifiableList(ground);
+		this.forest = Collections.unmodifiableList(forest);
+	}
+
+	/**
+	 * Returns the world index of the chunk.
+	 *
+	 * @return the chunk index
+	 */
+	public int getChunk() {
+		return this.data.getChunk();
+	}
+
+	/**
+	 * Returns the top of every ground column of the chunk.
+	 *
+	 * @return a copy of the column tops, from left to right
+	 */
+	public float[] getColumnTops() {
+		return this.data.getColumnTops();
+	}
+
+	/**
+	 * Returns the content the chunk was built from.
+	 *
+	 * @return the column tops, tree layouts and fruit states of the chunk
+	 */
+	public ChunkData getData() {
+		return this.data;
+	}
+
+	/**
+	 * Returns the ground objects of the chunk.
+	 *
+	 * @return an unmodifiable list of the ground objects
+	 */
+	public List<GameObject> getGround() {
+		return this.ground;
+	}
+
+	/**
+	 * Returns the roots, leaves and fruits of the chunk.
+	 *
+	 * @return an unmodifiable list of the forest objects
+	 */
+	public List<GameObject> getForest() {
+		return this.forest;
+	}
+}
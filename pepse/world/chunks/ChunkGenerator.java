@@ -0,0 +1,418 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.profiling.ChunkGeneratedEvent;
+import pepse.profiling.PepseStats;
+import pepse.world.KindedObject;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Generates the terrain and flora of chunks on background worker threads.
+ * <p>
+ * Each requested chunk is built by a worker into a ChunkDescriptor, which is handed back
+ * to the game thread through a concurrent queue. The game thread only attaches the
+ * finished objects, so no generation work happens inside a frame. Requesting, cancelling
+ * and draining must all be done from the game thread.
+ * <p>
+ * The objects of a chunk are owned by one thread at a time, and are not synchronized
+ * themselves. The pools of blocks, leaves and fruits are ObjectPools, which only make
+ * acquiring and releasing safe from any thread: a worker owns the objects it acquires
+ * until it queues their descriptor, the queue publishes them to the game thread, and the
+ * game thread releases them back into their pools once they left the game. The chunks
+ * drained after they were cancelled or requested again are never attached; their objects
+ * are recycled right away, and counted as evicted in the PepseStats, if they are set.
+ * A chunk whose generation failed is handed back as a failure, and draining it throws,
+ * so a broken chunk stops the game loudly instead of leaving a silent gap in the world.
+ * <p>
+ * The ground is either built from visible blocks, or baked into a single image object,
+ * optionally accompanied by invisible blocks to collide with.
+ * <p>
+ * A span of chunks may be planned ahead of time with pregenerate, after which requesting
+ * any of them only builds its game objects from the planned heights and tree layouts.
+ * When a ChunkStore is set, a chunk stored earlier is read from it instead of planned,
+ * with the states of its fruits, and writeBack stores an evicted chunk in it. Writing
+ * back is done by the workers too, so evicting a chunk never waits for the disk; a chunk
+ * requested again waits for its own write-back to finish before it is read.
+ * <p>
+ * The generation of every chunk is recorded as a ChunkGeneratedEvent when Flight
+ * Recorder is running, and counted in the PepseStats, if they are set.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class ChunkGenerator {
+	// Message of the error raised when a chunk could not be generated
+	private static final String GENERATION_FAILED = "failed to generate chunk ";
+	// Message of the error raised when an evicted chunk could not be stored
+	private static final String WRITE_BACK_FAILED = "failed to store chunk ";
+	// Request id of the results of write-backs, which answer no request
+	private static final long WRITE_BACK = -1;
+	// Seconds shutdown waits for the workers to finish
+	private static final long SHUTDOWN_TIMEOUT = 5;
+	// Upper bound on the number of worker threads
+	private static final int MAX_WORKERS = 2;
+	// Name given to the worker threads
+	private static final String WORKER_NAME = "chunk-generator";
+
+	// Builds the ground of a chunk
+	private final Terrain terrain;
+	// Builds the trees of a chunk
+	private final Flora flora;
+	// Computes the heights and tree layouts of a chunk
+	private final ChunkPlanner planner;
+	// The content of the chunks planned ahead of time, by chunk index
+	private final Map<Integer, ChunkData> planned;
+	// Whether the ground is drawn by a single baked object per chunk
+	private final boolean bakeGround;
+	// Whether blocks to collide with are created along with a baked ground
+	private final boolean groundColliders;
+	// Runs the generation tasks
+	private final ExecutorService workers;
+	// Finished chunks waiting to be attached by the game thread
+	private final Queue<Result> ready;
+	// The id of the outstanding request of every pending chunk
+	private final Map<Integer, Long> pendingRequests;
+	// The task of every pending chunk
+	private final Map<Integer, Future<?>> pendingTasks;
+	// The write-back of every chunk evicted and not requested since, by chunk index
+	private final Map<Integer, Future<?>> pendingWrites;
+	// Id given to the next request
+	private long nextRequestId;
+	// Keeps the evicted chunks, null when nothing is stored
+	private volatile ChunkStore store;
+	// Counts the generated chunks, null when nothing is counted
+	private volatile PepseStats stats;
+
+	/**
+	 * Constructor for ChunkGenerator.
+	 *
+	 * @param terrain         builds the ground of a chunk
+	 * @param flora           builds the trees of a chunk
+	 * @param bakeGround      whether the ground is drawn by a single baked object per chunk
+	 * @param groundColliders whether invisible blocks to collide with are created along
+	 *                        with a baked ground
+	 */
+	public ChunkGenerator(Terrain terrain, Flora flora, boolean bakeGround,
+						  boolean groundColliders) {
+		this.terrain = terrain;
+		this.flora = flora;
+		this.planner = new ChunkPlanner(terrain, flora);
+		this.planned = new ConcurrentHashMap<>();
+		this.bakeGround = bakeGround;
+		this.groundColliders = groundColliders;
+		int workerCount = Math.max(1,
+				Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+		this.workers = Executors.newFixedThreadPool(workerCount, (Runnable task) -> {
+			Thread worker = new Thread(task, WORKER_NAME);
+			worker.setDaemon(true);
+			return worker;
+		});
+		this.ready = new ConcurrentLinkedQueue<>();
+		this.pendingRequests = new HashMap<>();
+		this.pendingTasks = new HashMap<>();
+		this.pendingWrites = new HashMap<>();
+		this.nextRequestId = 0;
+	}
+
+	/**
+	 * Plans every chunk of the span [firstChunk, lastChunk] in parallel, and blocks until
+	 * it is done. Chunks of the span requested later skip computing their heights and
+	 * tree layouts.
+	 *
+	 * @param firstChunk the index of the leftmost chunk of the span
+	 * @param lastChunk  the index of the rightmost chunk of the span
+	 * @param chunkWidth the width of a chunk in pixels
+	 */
+	public void pregenerate(int firstChunk, int lastChunk, int chunkWidth) {
+		this.planned.putAll(this.planner.planSpan(firstChunk, lastChunk, chunkWidth));
+	}
+
+	/**
+	 * Sets the store chunks are read from when requested and written to by writeBack.
+	 *
+	 * @param store the chunk store, or null to store nothing
+	 */
+	public void setStore(ChunkStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Sets the statistics every generated chunk is counted in.
+	 *
+	 * @param stats the statistics of the game, or null to count nothing
+	 */
+	public void setStats(PepseStats stats) {
+		this.stats = stats;
+	}
+
+	/**
+	 * Schedules the generation of a chunk covering the range [minX, maxX).
+	 *
+	 * @param chunk the world index of the chunk
+	 * @param minX  the minimal x-coordinate (inclusive) of the chunk
+	 * @param maxX  the maximal x-coordinate (exclusive) of the chunk
+	 */
+	public void request(int chunk, int minX, int maxX) {
+		this.submit(chunk, minX, maxX, false);
+	}
+
+	/**
+	 * Schedules the generation of a chunk covering the range [minX, maxX) from a new plan,
+	 * ignoring its stored and planned content, so all its fruits hang on their trees.
+	 *
+	 * @param chunk the world index of the chunk
+	 * @param minX  the minimal x-coordinate (inclusive) of the chunk
+	 * @param maxX  the maximal x-coordinate (exclusive) of the chunk
+	 */
+	public void regenerate(int chunk, int minX, int maxX) {
+		this.submit(chunk, minX, maxX, true);
+	}
+
+	/*
+	 * Submits the generation of a chunk to the workers, planning it anew if replan is set.
+	 */
+	private void submit(int chunk, int minX, int maxX, boolean replan) {
+		long requestId = this.nextRequestId++;
+		this.pendingRequests.put(chunk, requestId);
+		Future<?> writeBack = this.pendingWrites.remove(chunk);
+		this.pendingTasks.put(chunk, this.workers.submit(() -> {
+			try {
+				awaitWriteBack(writeBack);
+				this.ready.add(new Result(requestId, chunk,
+						this.generate(chunk, minX, maxX, replan), null));
+			} catch (RuntimeException | Error e) {
+				this.ready.add(new Result(requestId, chunk, null, e));
+			}
+		}));
+	}
+
+	/*
+	 * Builds the objects of a chunk, on a worker thread.
+	 */
+	private ChunkDescriptor generate(int chunk, int minX, int maxX, boolean replan) {
+		ChunkGeneratedEvent event = new ChunkGeneratedEvent();
+		event.begin();
+		long start = System.nanoTime();
+		ChunkData data = replan ? this.planner.plan(chunk, minX, maxX)
+				: this.findData(chunk, minX, maxX);
+		List<GameObject> ground = this.createGround(minX, data.getColumnTops());
+		List<GameObject> forest = this.flora.createFromLayouts(data.getTrees());
+		event.finish(chunk, minX, maxX, ground.size() + forest.size());
+		PepseStats chunkStats = this.stats;
+		if (chunkStats != null) {
+			chunkStats.recordGeneration(ground.size() + forest.size(), System.nanoTime() - start);
+		}
+		return new ChunkDescriptor(data, ground, forest);
+	}
+
+	/**
+	 * Stores an evicted chunk on a worker thread, if a store is set. A failure to store it
+	 * is thrown by a later drainReady.
+	 *
+	 * @param data the content of the evicted chunk, with the current states of its fruits
+	 */
+	public void writeBack(ChunkData data) {
+		ChunkStore chunkStore = this.store;
+		if (chunkStore == null) {
+			return;
+		}
+		this.pendingWrites.values().removeIf(Future::isDone);
+		int chunk = data.getChunk();
+		this.pendingWrites.put(chunk, this.workers.submit(() -> {
+			try {
+				chunkStore.write(data);
+			} catch (RuntimeException | Error e) {
+				this.ready.add(new Result(WRITE_BACK, chunk, null, e));
+			}
+		}));
+	}
+
+	/*
+	 * Waits, on a worker thread, for the write-back of a chunk submitted before the task
+	 * reading it. The queue of the workers is first in first out, so the write-back is
+	 * already running or done.
+	 */
+	private static void awaitWriteBack(Future<?> writeBack) {
+		if (writeBack == null) {
+			return;
+		}
+		try {
+			writeBack.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | CancellationException e) {
+			// a failed write-back is reported by its own result
+		}
+	}
+
+	/**
+	 * Lets the workers finish the generations and write-backs submitted so far, and
+	 * closes the store, if one is set. Called once, when the game exits.
+	 */
+	public void shutdown() {
+		this.workers.shutdown();
+		try {
+			this.workers.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		ChunkStore chunkStore = this.store;
+		if (chunkStore != null) {
+			chunkStore.close();
+		}
+	}
+
+	/*
+	 * Returns the content of a chunk from the store, from the planned span, or planned now.
+	 */
+	private ChunkData findData(int chunk, int minX, int maxX) {
+		ChunkStore chunkStore = this.store;
+		ChunkData data = chunkStore != null ? chunkStore.read(chunk) : null;
+		if (data == null) {
+			data = this.planned.get(chunk);
+		}
+		if (data == null) {
+			data = this.planner.plan(chunk, minX, maxX);
+		}
+		return data;
+	}
+
+	/*
+	 * Builds the ground objects of the range starting at minX with the given column tops.
+	 */
+	private List<GameObject> createGround(int minX, float[] columnTops) {
+		List<GameObject> ground = new ArrayList<>();
+		if (!this.bakeGround) {
+			ground.addAll(this.terrain.createInRange(minX, columnTops));
+			return ground;
+		}
+		ground.add(this.terrain.createBakedInRange(minX, columnTops));
+		if (this.groundColliders) {
+			ground.addAll(this.terrain.createCollidersInRange(minX, columnTops));
+		}
+		return ground;
+	}
+
+	/**
+	 * Drops the pending request of a chunk, if any. A result already produced for it
+	 * will never be handed to the game thread; its objects are recycled when it is drained.
+	 *
+	 * @param chunk the world index of the chunk
+	 */
+	public void cancel(int chunk) {
+		this.pendingRequests.remove(chunk);
+		Future<?> task = this.pendingTasks.remove(chunk);
+		if (task != null) {
+			task.cancel(false);
+		}
+	}
+
+	/**
+	 * Hands every finished chunk that is still requested to the given consumer.
+	 *
+	 * @param attach called on the game thread with every finished chunk
+	 * @throws IllegalStateException if a chunk still requested could not be generated,
+	 *                               caused by the error of its generation
+	 */
+	public void drainReady(Consumer<ChunkDescriptor> attach) {
+		Result result;
+		while ((result = this.ready.poll()) != null) {
+			if (result.requestId == WRITE_BACK) {
+				throw new IllegalStateException(WRITE_BACK_FAILED + result.chunk, result.failure);
+			}
+			Long pending = this.pendingRequests.get(result.chunk);
+			if (pending == null || pending != result.requestId) {
+				this.discard(result.descriptor);
+				continue;
+			}
+			this.pendingRequests.remove(result.chunk);
+			this.pendingTasks.remove(result.chunk);
+			if (result.failure != null) {
+				throw new IllegalStateException(GENERATION_FAILED + result.chunk, result.failure);
+			}
+			attach.accept(result.descriptor);
+		}
+	}
+
+	/*
+	 * Recycles the objects of a chunk drained after it was cancelled or requested again,
+	 * which never entered the game, and counts them as evicted.
+	 */
+	private void discard(ChunkDescriptor descriptor) {
+		if (descriptor == null) {
+			return;
+		}
+		descriptor.getGround().forEach(KindedObject::recycle);
+		descriptor.getForest().forEach(KindedObject::recycle);
+		PepseStats chunkStats = this.stats;
+		if (chunkStats != null) {
+			chunkStats.recordEviction(descriptor.getGround().size() + descriptor.getForest().size());
+		}
+	}
+
+	/**
+	 * Blocks until every pending chunk was generated. Used before the game starts,
+	 * so the avatar never spawns above missing ground.
+	 */
+	public void awaitPending() {
+		for (Future<?> task : this.pendingTasks.values()) {
+			try {
+				task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of chunks requested but not yet attached.
+	 *
+	 * @return the number of pending chunks
+	 */
+	public int pendingCount() {
+		return this.pendingRequests.size();
+	}
+
+	/*
+	 * A finished chunk, or the error that kept it from being generated, together with
+	 * the request that produced it.
+	 */
+	private static final class Result {
+		// Identifies the request that produced the chunk
+		private final long requestId;
+		// The world index of the chunk
+		private final int chunk;
+		// The finished chunk, null if its generation failed
+		private final ChunkDescriptor descriptor;
+		// The error of the generation, null if it succeeded
+		private final Throwable failure;
+
+		/*
+		 * Constructor for Result.
+		 */
+		private Result(long requestId, int chunk, ChunkDescriptor descriptor, Throwable failure) {
+			this.requestId = requestId;
+			this.chunk = chunk;
+			this.descriptor = descriptor;
+			this.failure = failure;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package pepse.world.chunks;
+
+/**
+ * interface for all classes that react when the chunk manager
+ * loads or evicts a chunk of the world.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public interface ChunkListener {
+	/**
+	 * Called when a chunk enters the loaded window and should be generated.
+	 *
+	 * @param chunk the world index of the chunk to load
+	 */
+	public void onChunkLoad(int chunk);
+
+	/**
+	 * Called when a chunk left the loaded window (including the eviction margin)
+	 * and all of its objects should be removed from the game.
+	 *
+	 * @param chunk the world index of the chunk to evict
+	 */
+	public void onChunkEvict(int chunk);
+}
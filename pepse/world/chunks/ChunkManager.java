@@ -0,0 +1,165 @@
+package pepse.world.chunks;
+
+/**
+ * Streams the world in fixed-width chunks around the avatar.
+ * <p>
+ * Chunks are keyed by their world chunk index (chunk k covers the x range
+ * [k * chunkWidth, (k + 1) * chunkWidth)). Every frame the manager makes sure that all
+ * chunks within the load radius of the avatar, and of the point the avatar will reach
+ * in PREFETCH_TIME seconds at its current velocity, are loaded. A chunk is only evicted
+ * once it is more than evictionMargin chunks outside that window, so walking back and
+ * forth across a chunk boundary never causes regeneration.
+ * The loaded chunks always form one contiguous range of indices.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class ChunkManager {
+	// Seconds of avatar movement to look ahead when prefetching chunks
+	private static final float PREFETCH_TIME = 1f;
+
+	// Width of a single chunk in pixels
+	private final int chunkWidth;
+	// Number of chunks to keep loaded on each side of the avatar
+	private final int loadRadius;
+	// Number of extra chunks tolerated outside the load window before eviction
+	private final int evictionMargin;
+	// Notified about every chunk that is loaded or evicted
+	private final ChunkListener listener;
+	// Index of the leftmost loaded chunk
+	private int loadedMin;
+	// Index of the rightmost loaded chunk, smaller than loadedMin when nothing is loaded
+	private int loadedMax;
+
+	/**
+	 * Constructor for ChunkManager. No chunk is loaded until the first update.
+	 *
+	 * @param chunkWidth     width of a single chunk in pixels
+	 * @param loadRadius     number of chunks to keep loaded on each side of the avatar
+	 * @param evictionMargin number of chunks a loaded chunk may drift outside the
+	 *                       load window before it is evicted
+	 * @param listener       notified about every chunk that is loaded or evicted
+	 */
+	public ChunkManager(int chunkWidth, int loadRadius, int evictionMargin,
+						ChunkListener listener) {
+		this.chunkWidth = chunkWidth;
+		this.loadRadius = loadRadius;
+		this.evictionMargin = evictionMargin;
+		this.listener = listener;
+		this.loadedMin = 0;
+		this.loadedMax = -1;
+	}
+
+	/**
+	 * Loads every chunk needed around the avatar and evicts the chunks that drifted
+	 * far enough away from it. Called every frame, since the window ahead of the avatar
+	 * moves with its velocity even while it stays in the same chunk.
+	 *
+	 * @param avatarX   the x-coordinate of the avatar in world coordinates
+	 * @param velocityX the horizontal velocity of the avatar (pixels per second)
+	 */
+	public void update(float avatarX, float velocityX) {
+		int center = chunkIndexAt(avatarX);
+		int ahead = chunkIndexAt(avatarX + velocityX * PREFETCH_TIME);
+		int first = Math.min(center, ahead) - this.loadRadius;
+		int last = Math.max(center, ahead) + this.loadRadius;
+		if (this.loadedMax < first - this.evictionMargin ||
+				last + this.evictionMargin < this.loadedMin) {
+			// nothing loaded can be kept, start a fresh window
+			this.evictBetween(this.loadedMin, this.loadedMax);
+			this.loadedMin = first;
+			this.loadedMax = first - 1;
+		}
+		while (this.loadedMax < last) {
+			this.loadedMax++;
+			this.listener.onChunkLoad(this.loadedMax);
+		}
+		while (first < this.loadedMin) {
+			this.loadedMin--;
+			this.listener.onChunkLoad(this.loadedMin);
+		}
+		this.evictOutside(first - this.evictionMargin, last + this.evictionMargin);
+	}
+
+	/**
+	 * Evicts at once every loaded chunk outside the load window around the avatar,
+	 * without waiting for it to drift the eviction margin away.
+	 *
+	 * @param avatarX the x-coordinate of the avatar in world coordinates
+	 */
+	public void trim(float avatarX) {
+		int center = chunkIndexAt(avatarX);
+		this.evictOutside(center - this.loadRadius, center + this.loadRadius);
+	}
+
+	/**
+	 * Returns the index of the chunk containing the given x-coordinate.
+	 *
+	 * @param x an x-coordinate in world coordinates
+	 * @return the index of the chunk containing x
+	 */
+	public int chunkIndexAt(float x) {
+		return Math.floorDiv((int) Math.floor(x), this.chunkWidth);
+	}
+
+	/**
+	 * Returns the x-coordinate where the given chunk starts.
+	 *
+	 * @param chunk a chunk index
+	 * @return the minimal x-coordinate (inclusive) covered by the chunk
+	 */
+	public int chunkMinX(int chunk) {
+		return chunk * this.chunkWidth;
+	}
+
+	/**
+	 * Returns the x-coordinate where the given chunk ends.
+	 *
+	 * @param chunk a chunk index
+	 * @return the maximal x-coordinate (exclusive) covered by the chunk
+	 */
+	public int chunkMaxX(int chunk) {
+		return (chunk + 1) * this.chunkWidth;
+	}
+
+	/**
+	 * Returns the index of the leftmost loaded chunk.
+	 *
+	 * @return the leftmost loaded chunk index
+	 */
+	public int getLoadedMin() {
+		return this.loadedMin;
+	}
+
+	/**
+	 * Returns the index of the rightmost loaded chunk.
+	 *
+	 * @return the rightmost loaded chunk index, smaller than getLoadedMin() when
+	 * nothing is loaded
+	 */
+	public int getLoadedMax() {
+		return this.loadedMax;
+	}
+
+	/*
+	 * Evicts every loaded chunk outside the inclusive range [first, last].
+	 */
+	private void evictOutside(int first, int last) {
+		while (this.loadedMin < first && this.loadedMin <= this.loadedMax) {
+			this.listener.onChunkEvict(this.loadedMin);
+			this.loadedMin++;
+		}
+		while (this.loadedMax > last && this.loadedMax >= this.loadedMin) {
+			this.listener.onChunkEvict(this.loadedMax);
+			this.loadedMax--;
+		}
+	}
+
+	/*
+	 * Evicts every chunk in the inclusive range [from, to].
+	 */
+	private void evictBetween(int from, int to) {
+		for (int chunk = from; chunk <= to; chunk++) {
+			this.listener.onChunkEvict(chunk);
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.world.KindedObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the game objects of chunks to the game, and remembers the chunk and the layer of
+ * every object so all the objects of a chunk can be removed together.
+ * <p>
+ * Objects are kept in one bucket per loaded chunk, so removing a chunk touches only its
+ * own objects, and the bucket is dropped with it, so nothing holds on to removed objects.
+ * Removed objects of pooled classes are recycled one frame later, by recycleRemoved, so
+ * no object is repositioned for a new chunk while the frame that removed it still runs.
+ * <p>
+ * Only the chunks of the active range, set by setActiveChunks, have their objects in the
+ * game. The objects of the other loaded chunks are suspended: they are taken out of the
+ * game, so they are neither updated nor drawn nor collided with, and are put back, in
+ * the same layers, when their chunk enters the active range again.
+ * <p>
+ * A single object may also be hidden, taking it out of the game while its chunk stays
+ * loaded, until it is shown again.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class ChunkObjectRegistry {
+	// Initial capacity, in objects, of a chunk bucket
+	private static final int INITIAL_BUCKET_SIZE = 64;
+
+	// The collection the objects are added to and removed from
+	private final GameObjectCollection gameObjects;
+	// The objects of every loaded chunk, by chunk index
+	private final Map<Integer, Bucket> buckets;
+	// The buckets of the chunks removed since the last call to recycleRemoved
+	private final List<Bucket> removed;
+	// Number of objects registered in all the chunks
+	private int objectCount;
+	// Number of objects of the chunks outside the active range
+	private int suspendedCount;
+	// The first chunk of the active range
+	private int firstActive;
+	// The last chunk of the active range
+	private int lastActive;
+
+	/**
+	 * Constructor for ChunkObjectRegistry.
+	 *
+	 * @param gameObjects the collection the objects are added to and removed from
+	 */
+	public ChunkObjectRegistry(GameObjectCollection gameObjects) {
+		this.gameObjects = gameObjects;
+		this.buckets = new HashMap<>();
+		this.removed = new ArrayList<>();
+		this.objectCount = 0;
+		this.suspendedCount = 0;
+		this.firstActive = Integer.MIN_VALUE;
+		this.lastActive = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Adds an object of a chunk to the game, in the given layer. The object is suspended
+	 * if the chunk is outside the active range.
+	 *
+	 * @param chunk  the world index of the chunk the object belongs to
+	 * @param object the object to add
+	 * @param layer  the layer to add the object to
+	 */
+	public void add(int chunk, GameObject object, int layer) {
+		Bucket bucket = this.buckets.computeIfAbsent(chunk,
+				(Integer index) -> new Bucket(this.isActive(index)));
+		if (bucket.active) {
+			this.gameObjects.addGameObject(object, layer);
+		} else {
+			this.suspendedCount++;
+		}
+		bucket.add(object, layer);
+		this.objectCount++;
+	}
+
+	/**
+	 * Sets the range of chunks whose objects are in the game, suspending the objects of
+	 * the chunks leaving it and resuming the objects of the chunks entering it.
+	 *
+	 * @param firstChunk the first chunk of the active range
+	 * @param lastChunk  the last chunk of the active range
+	 */
+	public void setActiveChunks(int firstChunk, int lastChunk) {
+		if (firstChunk == this.firstActive && lastChunk == this.lastActive) {
+			return;
+		}
+		this.firstActive = firstChunk;
+		this.lastActive = lastChunk;
+		for (Map.Entry<Integer, Bucket> entry : this.buckets.entrySet()) {
+			Bucket bucket = entry.getValue();
+			boolean active = this.isActive(entry.getKey());
+			if (active == bucket.active) {
+				continue;
+			}
+			for (int i = 0; i < bucket.size; i++) {
+				if (bucket.hidden[i]) {
+					continue;
+				}
+				if (active) {
+					this.gameObjects.addGameObject(bucket.objects[i], bucket.layers[i]);
+				} else {
+					this.gameObjects.removeGameObject(bucket.objects[i], bucket.layers[i]);
+				}
+			}
+			bucket.active = active;
+			this.suspendedCount += active ? -bucket.size : bucket.size;
+		}
+	}
+
+	/**
+	 * Takes an object of a loaded chunk out of the game, or puts it back, in its layer.
+	 * A hidden object stays out of the game when its chunk is resumed.
+	 *
+	 * @param chunk  the world index of the chunk the object belongs to
+	 * @param object the object
+	 * @param hidden whether the object is taken out of the game
+	 */
+	public void setHidden(int chunk, GameObject object, boolean hidden) {
+		Bucket bucket = this.buckets.get(chunk);
+		int index = bucket != null ? bucket.indexOf(object) : -1;
+		if (index < 0 || bucket.hidden[index] == hidden) {
+			return;
+		}
+		bucket.hidden[index] = hidden;
+		if (!bucket.active) {
+			return;
+		}
+		if (hidden) {
+			this.gameObjects.removeGameObject(object, bucket.layers[index]);
+		} else {
+			this.gameObjects.addGameObject(object, bucket.layers[index]);
+		}
+	}
+
+	/**
+	 * Removes every object of a chunk from the layer it was added to, and forgets them
+	 * once they were recycled.
+	 *
+	 * @param chunk the world index of the chunk
+	 * @return the number of objects removed
+	 */
+	public int removeChunk(int chunk) {
+		Bucket bucket = this.buckets.remove(chunk);
+		if (bucket == null) {
+			return 0;
+		}
+		if (bucket.active) {
+			for (int i = 0; i < bucket.size; i++) {
+				if (!bucket.hidden[i]) {
+					this.gameObjects.removeGameObject(bucket.objects[i], bucket.layers[i]);
+				}
+			}
+		} else {
+			this.suspendedCount -= bucket.size;
+		}
+		this.objectCount -= bucket.size;
+		this.removed.add(bucket);
+		return bucket.size;
+	}
+
+	/**
+	 * Puts the objects of the chunks removed since the last call back into the pools of
+	 * their classes. Called once per frame, before any chunk is removed in it.
+	 */
+	public void recycleRemoved() {
+		for (Bucket bucket : this.removed) {
+			for (int i = 0; i < bucket.size; i++) {
+				KindedObject.recycle(bucket.objects[i]);
+			}
+		}
+		this.removed.clear();
+	}
+
+	/**
+	 * Returns the number of chunks that have objects registered.
+	 *
+	 * @return the number of chunks
+	 */
+	public int chunkCount() {
+		return this.buckets.size();
+	}
+
+	/**
+	 * Returns the number of objects registered in all the chunks.
+	 *
+	 * @return the number of objects
+	 */
+	public int objectCount() {
+		return this.objectCount;
+	}
+
+	/**
+	 * Returns the number of objects of the chunks removed since the last call to
+	 * recycleRemoved, waiting to be recycled.
+	 *
+	 * @return the number of removed objects not recycled yet
+	 */
+	public int pendingRecycleCount() {
+		int count = 0;
+		for (Bucket bucket : this.removed) {
+			count += bucket.size;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of objects of the chunks outside the active range.
+	 *
+	 * @return the number of suspended objects
+	 */
+	public int suspendedCount() {
+		return this.suspendedCount;
+	}
+
+	/*
+	 * Checks whether a chunk is in the active range.
+	 */
+	private boolean isActive(int chunk) {
+		return chunk >= this.firstActive && chunk <= this.lastActive;
+	}
+
+	/*
+	 * The objects of a single chunk, each with the layer it was added to.
+	 */
+	private static final class Bucket {
+		// The objects of the chunk, in the order they were added
+		private GameObject[] objects;
+		// The layer of every object
+		private int[] layers;
+		// Whether every object is hidden
+		private boolean[] hidden;
+		// Number of objects in the bucket
+		private int size;
+		// Whether the objects are in the game, false while they are suspended
+		private boolean active;
+
+		/*
+		 * Constructor for an empty Bucket.
+		 */
+		private Bucket(boolean active) {
+			this.active = active;
+			this.objects = new GameObject[INITIAL_BUCKET_SIZE];
+			this.layers = new int[INITIAL_BUCKET_SIZE];
+			this.hidden = new boolean[INITIAL_BUCKET_SIZE];
+			this.size = 0;
+		}
+
+		/*
+		 * Adds an object and its layer to the bucket.
+		 */
+		private void add(GameObject object, int layer) {
+			if (this.size == this.objects.length) {
+				this.objects = Arrays.copyOf(this.objects, this.size * 2);
+				this.layers = Arrays.copyOf(this.layers, this.size * 2);
+				this.hidden = Arrays.copyOf(this.hidden, this.size * 2);
+			}
+			this.objects[this.size] = object;
+			this.layers[this.size] = layer;
+			this.hidden[this.size] = false;
+			this.size++;
+		}
+
+		/*
+		 * Returns the index of an object in the bucket, or -1 if it is not in it.
+		 */
+		private int indexOf(GameObject object) {
+			for (int i = 0; i < this.size; i++) {
+				if (this.objects[i] == object) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package pepse.world.chunks;
+
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Computes the ChunkData of chunks: the heights of their ground columns and the layouts
+ * of their trees.
+ * <p>
+ * Every chunk is computed only from its own position, by the same Terrain and Flora
+ * methods the sequential path calls, so planning a span of chunks in parallel gives
+ * exactly what planning them one by one gives.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class ChunkPlanner {
+	// Computes the column heights of a chunk
+	private final Terrain terrain;
+	// Computes the tree layouts of a chunk
+	private final Flora flora;
+
+	/**
+	 * Constructor for ChunkPlanner.
+	 *
+	 * @param terrain computes the column heights of a chunk
+	 * @param flora   computes the tree layouts of a chunk
+	 */
+	public ChunkPlanner(Terrain terrain, Flora flora) {
+		this.terrain = terrain;
+		this.flora = flora;
+	}
+
+	/**
+	 * Computes the content of a chunk covering the range [minX, maxX).
+	 *
+	 * @param chunk the world index of the chunk
+	 * @param minX  the minimal x-coordinate (inclusive) of the chunk
+	 * @param maxX  the maximal x-coordinate (exclusive) of the chunk
+	 * @return the content of the chunk
+	 */
+	public ChunkData plan(int chunk, int minX, int maxX) {
+		return new ChunkData(chunk, this.terrain.columnTopsInRange(minX, maxX),
+				this.flora.layoutInRange(minX, maxX));
+	}
+
+	/**
+	 * Computes the content of every chunk in [firstChunk, lastChunk] on a fork-join pool
+	 * with one worker per available core, and blocks until all of them are done.
+	 *
+	 * @param firstChunk the index of the leftmost chunk of the span
+	 * @param lastChunk  the index of the rightmost chunk of the span
+	 * @param chunkWidth the width of a chunk in pixels
+	 * @return the content of every chunk of the span, by chunk index
+	 */
+	public Map<Integer, ChunkData> planSpan(int firstChunk, int lastChunk, int chunkWidth) {
+		List<Callable<ChunkData>> tasks = new ArrayList<>();
+		for (int chunk = firstChunk; chunk <= lastChunk; chunk++) {
+			int index = chunk;
+			tasks.add(() -> this.plan(index, index * chunkWidth, (index + 1) * chunkWidth));
+		}
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try {
+			Map<Integer, ChunkData> span = new HashMap<>();
+			for (Future<ChunkData> result : pool.invokeAll(tasks)) {
+				ChunkData data = result.get();
+				span.put(data.getChunk(), data);
+			}
+			return span;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new HashMap<>();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
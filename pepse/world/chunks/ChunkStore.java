@@ -0,0 +1,286 @@
+package pepse.world.chunks;
+
+import pepse.world.Block;
+import pepse.world.trees.TreeLayout;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the ChunkData of visited chunks on disk, so a chunk loaded again is read back
+ * instead of generated, and keeps the fruits that were eaten in it.
+ * <p>
+ * Chunks are grouped into regions of REGION_CHUNKS consecutive chunks, and every region
+ * is a single file accessed through a memory-mapped buffer. A region file starts with a
+ * header holding the offset, length and reserved capacity of the record of every chunk
+ * of the region, and the records follow it. A record holds:
+ * <ul>
+ *     <li>the number of columns and the top of the first column, followed by the
+ *     difference between every column top and the previous one, in blocks, one byte
+ *     each;</li>
+ *     <li>the number of trees, followed by every tree layout;</li>
+ *     <li>the fruit states: the number of fruits, a bitset of the eaten ones, and the
+ *     seconds every eaten fruit still takes to grow back.</li>
+ * </ul>
+ * Only the fruit states of a chunk change, so writing a chunk back overwrites its record
+ * in place: a record is given room for the remaining times of all the fruits of its
+ * chunk. A region file of an older version is emptied and written again in the current
+ * one, so its chunks are generated again.
+ * The store may be used from several threads.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class ChunkStore {
+	// Number of consecutive chunks stored in one region file
+	private static final int REGION_CHUNKS = 32;
+	// Number of region files kept open and mapped at once
+	private static final int OPEN_REGIONS = 8;
+	// Identifies a region file, "PEPS" in ASCII
+	private static final int MAGIC = 0x50455053;
+	// Version of the region file format, 3 since fruits keep their remaining times
+	private static final int VERSION = 3;
+	// Bytes of the header fields before the chunk table: magic, version and data end
+	private static final int HEADER_FIELDS_BYTES = Integer.BYTES * 3;
+	// Bytes of the table entry of a chunk: record offset, length and capacity
+	private static final int ENTRY_BYTES = Integer.BYTES * 3;
+	// Bytes of the whole header
+	private static final int HEADER_BYTES = HEADER_FIELDS_BYTES + REGION_CHUNKS * ENTRY_BYTES;
+	// Position of the data end in the header
+	private static final int END_POSITION = Integer.BYTES * 2;
+	// Size, in bytes, a region file is first mapped with
+	private static final int INITIAL_MAPPING = 1 << 16;
+	// Prefix of the region file names
+	private static final String REGION_PREFIX = "region.";
+	// Suffix of the region file names
+	private static final String REGION_SUFFIX = ".pepse";
+	// Message of the error raised for a file that is not a region file
+	private static final String NOT_A_REGION = "not a region file: ";
+	// Message of the error raised for a region file written by a newer version of the game
+	private static final String NEWER_REGION = "region file of a newer version: ";
+
+	// The directory holding the region files
+	private final Path directory;
+	// The open regions by region index, least recently used first
+	private final Map<Integer, Region> regions;
+
+	/**
+	 * Constructor for ChunkStore.
+	 *
+	 * @param directory the directory holding the region files, created if missing
+	 */
+	public ChunkStore(Path directory) {
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.regions = new LinkedHashMap<>(OPEN_REGIONS, 1, true);
+	}
+
+	/**
+	 * Reads a stored chunk.
+	 *
+	 * @param chunk the world index of the chunk
+	 * @return the stored content of the chunk, or null if it was never stored
+	 */
+	public synchronized ChunkData read(int chunk) {
+		Region region = this.region(Math.floorDiv(chunk, REGION_CHUNKS));
+		int entry = entryPosition(chunk);
+		int length = region.buffer.getInt(entry + Integer.BYTES);
+		if (length == 0) {
+			return null;
+		}
+		ByteBuffer record = region.buffer.duplicate();
+		record.position(region.buffer.getInt(entry));
+		return decode(chunk, record);
+	}
+
+	/**
+	 * Stores a chunk, replacing what was stored for it before.
+	 *
+	 * @param data the content of the chunk
+	 */
+	public synchronized void write(ChunkData data) {
+		Region region = this.region(Math.floorDiv(data.getChunk(), REGION_CHUNKS));
+		int entry = entryPosition(data.getChunk());
+		int length = encodedSize(data);
+		int offset = region.buffer.getInt(entry);
+		if (length > region.buffer.getInt(entry + Integer.BYTES * 2)) {
+			// append a new record with room for every fruit eaten, the old one is left unused
+			FruitStates fruits = data.getFruitStates();
+			int capacity = length + (fruits.fruitCount() - fruits.eatenCount()) * Float.BYTES;
+			offset = region.buffer.getInt(END_POSITION);
+			region.ensureCapacity(offset + capacity);
+			region.buffer.putInt(END_POSITION, offset + capacity);
+			region.buffer.putInt(entry, offset);
+			region.buffer.putInt(entry + Integer.BYTES * 2, capacity);
+		}
+		ByteBuffer record = region.buffer.duplicate();
+		record.position(offset);
+		encode(data, record);
+		region.buffer.putInt(entry + Integer.BYTES, length);
+	}
+
+	/**
+	 * Closes every open region file. The store opens them again if it is used later.
+	 */
+	public synchronized void close() {
+		for (Region region : this.regions.values()) {
+			region.close();
+		}
+		this.regions.clear();
+	}
+
+	/*
+	 * Returns the position of the table entry of a chunk in its region header.
+	 */
+	private static int entryPosition(int chunk) {
+		return HEADER_FIELDS_BYTES + Math.floorMod(chunk, REGION_CHUNKS) * ENTRY_BYTES;
+	}
+
+	/*
+	 * Returns an open region, opening it and closing the least recently used one if needed.
+	 */
+	private Region region(int index) {
+		Region region = this.regions.get(index);
+		if (region != null) {
+			return region;
+		}
+		if (this.regions.size() == OPEN_REGIONS) {
+			Integer eldest = this.regions.keySet().iterator().next();
+			this.regions.remove(eldest).close();
+		}
+		region = new Region(this.directory.resolve(REGION_PREFIX + index + REGION_SUFFIX));
+		this.regions.put(index, region);
+		return region;
+	}
+
+	/*
+	 * Returns the number of bytes the record of a chunk takes.
+	 */
+	private static int encodedSize(ChunkData data) {
+		int size = Byte.BYTES + Integer.BYTES + data.getColumnTops().length - 1;
+		size += Short.BYTES;
+		for (TreeLayout tree : data.getTrees()) {
+			size += tree.encodedSize();
+		}
+		return size + data.getFruitStates().encodedSize();
+	}
+
+	/*
+	 * Writes the record of a chunk at the position of the buffer.
+	 */
+	private static void encode(ChunkData data, ByteBuffer buffer) {
+		float[] tops = data.getColumnTops();
+		buffer.put((byte) tops.length).putInt((int) tops[0]);
+		for (int i = 1; i < tops.length; i++) {
+			buffer.put((byte) ((tops[i] - tops[i - 1]) / Block.SIZE));
+		}
+		buffer.putShort((short) data.getTrees().size());
+		for (TreeLayout tree : data.getTrees()) {
+			tree.writeTo(buffer);
+		}
+		data.getFruitStates().writeTo(buffer);
+	}
+
+	/*
+	 * Reads the record of a chunk at the position of the buffer.
+	 */
+	private static ChunkData decode(int chunk, ByteBuffer buffer) {
+		float[] tops = new float[buffer.get() & 0xFF];
+		tops[0] = buffer.getInt();
+		for (int i = 1; i < tops.length; i++) {
+			tops[i] = tops[i - 1] + buffer.get() * Block.SIZE;
+		}
+		int treeCount = buffer.getShort();
+		List<TreeLayout> trees = new ArrayList<>(treeCount);
+		for (int i = 0; i < treeCount; i++) {
+			trees.add(TreeLayout.readFrom(buffer));
+		}
+		return new ChunkData(chunk, tops, trees, FruitStates.readFrom(buffer));
+	}
+
+	/*
+	 * An open region file and its mapping.
+	 */
+	private static final class Region {
+		// The channel of the region file
+		private final FileChannel channel;
+		// The mapping of the region file, replaced by a larger one when it fills up
+		private MappedByteBuffer buffer;
+
+		/*
+		 * Opens a region file, creating it with an empty header if it does not exist or is
+		 * of an older version.
+		 */
+		private Region(Path file) {
+			try {
+				this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+						StandardOpenOption.READ, StandardOpenOption.WRITE);
+				boolean created = this.channel.size() == 0;
+				this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+						Math.max(INITIAL_MAPPING, this.channel.size()));
+				if (!created && this.buffer.getInt(0) != MAGIC) {
+					this.channel.close();
+					throw new IllegalStateException(NOT_A_REGION + file);
+				}
+				if (created || this.buffer.getInt(Integer.BYTES) < VERSION) {
+					this.clear();
+				} else if (this.buffer.getInt(Integer.BYTES) != VERSION) {
+					this.channel.close();
+					throw new IllegalStateException(NEWER_REGION + file);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/*
+		 * Writes an empty header of the current version, forgetting every record.
+		 */
+		private void clear() {
+			this.buffer.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION)
+					.putInt(END_POSITION, HEADER_BYTES);
+			for (int entry = HEADER_FIELDS_BYTES; entry < HEADER_BYTES; entry += Integer.BYTES) {
+				this.buffer.putInt(entry, 0);
+			}
+		}
+
+		/*
+		 * Maps the region file again with room for at least the given number of bytes.
+		 */
+		private void ensureCapacity(int size) {
+			if (size <= this.buffer.capacity()) {
+				return;
+			}
+			try {
+				this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+						Math.max(size, this.buffer.capacity() * 2L));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/*
+		 * Closes the region file. Its mapping stays valid until it is collected.
+		 */
+		private void close() {
+			try {
+				this.channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
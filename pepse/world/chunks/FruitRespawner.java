@@ -0,0 +1,193 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.util.TimerWheel;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.FruitListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes the eaten fruits of the loaded chunks grow back, and remembers the eaten fruits
+ * of the evicted chunks.
+ * <p>
+ * An eaten fruit is hidden from the game, so it is neither drawn nor collided with, and
+ * the regrow timer of the fruit is scheduled RESPAWN_TIME seconds later on the timer
+ * wheel of the game. When a chunk is evicted, the time its eaten fruits still take to
+ * grow back is returned as the FruitStates of the chunk, and when it is loaded again,
+ * those fruits are hidden and scheduled again.
+ * <p>
+ * Without a ChunkStore the respawner remembers the deadlines of the evicted chunks
+ * itself, so their fruits keep growing back while they are not loaded, and forgets a
+ * chunk once all its fruits grew back. With a store the states it keeps are used
+ * instead, and a fruit only grows back while its chunk is loaded.
+ * All the methods must be called from the game thread.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class FruitRespawner {
+	// Time in seconds an eaten fruit takes to grow back
+	private static final float RESPAWN_TIME = 30;
+
+	// Schedules the regrow timers of the fruits
+	private final TimerWheel timers;
+	// Hides the eaten fruits from the game
+	private final ChunkObjectRegistry chunkObjects;
+	// The fruits of every loaded chunk
+	private final Map<Integer, ChunkFruits> loaded;
+	// The clock time every fruit of an evicted chunk grows back at, 0 for a fruit that
+	// was not eaten, for the evicted chunks with fruits still growing back
+	private final Map<Integer, double[]> evicted;
+	// Whether the evicted chunks are kept in a store, which remembers their fruits
+	private boolean storeBacked;
+
+	/**
+	 * Constructor for FruitRespawner.
+	 *
+	 * @param timers       the timer wheel of the game
+	 * @param chunkObjects the registry the objects of the loaded chunks were added with
+	 */
+	public FruitRespawner(TimerWheel timers, ChunkObjectRegistry chunkObjects) {
+		this.timers = timers;
+		this.chunkObjects = chunkObjects;
+		this.loaded = new HashMap<>();
+		this.evicted = new HashMap<>();
+	}
+
+	/**
+	 * Chooses whether the evicted chunks are kept in a ChunkStore with the fruit states
+	 * detach returns, so the respawner does not need to remember them.
+	 *
+	 * @param storeBacked true if the game keeps the evicted chunks in a store
+	 */
+	public void setStoreBacked(boolean storeBacked) {
+		this.storeBacked = storeBacked;
+		this.evicted.clear();
+	}
+
+	/**
+	 * Starts tracking the fruits of a chunk that was just added to the game, hiding the
+	 * ones that were eaten and did not grow back yet.
+	 *
+	 * @param chunk  the world index of the chunk
+	 * @param forest the trees of the chunk, fruits included
+	 * @param stored the fruit states the chunk was generated with
+	 */
+	public void attach(int chunk, List<GameObject> forest, FruitStates stored) {
+		ChunkFruits fruits = new ChunkFruits(chunk, forest);
+		this.loaded.put(chunk, fruits);
+		double now = this.timers.now();
+		double[] deadlines = this.evicted.remove(chunk);
+		if (deadlines == null) {
+			if (stored.eatenCount() == 0 || stored.fruitCount() != fruits.fruits.size()) {
+				return;
+			}
+			float[] remaining = stored.toRemaining();
+			deadlines = new double[remaining.length];
+			for (int i = 0; i < remaining.length; i++) {
+				deadlines[i] = remaining[i] > 0 ? now + remaining[i] : 0;
+			}
+		} else if (deadlines.length != fruits.fruits.size()) {
+			return;
+		}
+		for (int i = 0; i < deadlines.length; i++) {
+			if (deadlines[i] > now) {
+				Fruit fruit = fruits.fruits.get(i);
+				fruit.hide();
+				this.chunkObjects.setHidden(chunk, fruit, true);
+				this.timers.schedule(fruit.getRegrowTimer(), deadlines[i]);
+			}
+		}
+	}
+
+	/**
+	 * Stops tracking the fruits of a chunk that is evicted, and returns which of them
+	 * were eaten. Without a store, their deadlines are remembered, and the chunks whose
+	 * fruits all grew back since they were evicted are forgotten.
+	 *
+	 * @param chunk the world index of the chunk
+	 * @return the fruit states of the chunk, or null if the chunk was not attached
+	 */
+	public FruitStates detach(int chunk) {
+		ChunkFruits fruits = this.loaded.remove(chunk);
+		if (fruits == null) {
+			return null;
+		}
+		double now = this.timers.now();
+		double[] deadlines = new double[fruits.fruits.size()];
+		float[] remaining = new float[deadlines.length];
+		for (int i = 0; i < deadlines.length; i++) {
+			Fruit fruit = fruits.fruits.get(i);
+			if (fruit.isEaten() && fruit.getRegrowTimer().isScheduled()) {
+				deadlines[i] = this.timers.deadlineOf(fruit.getRegrowTimer());
+				remaining[i] = (float) (deadlines[i] - now);
+			}
+			this.timers.cancel(fruit.getRegrowTimer());
+			fruit.setListener(null);
+		}
+		FruitStates states = FruitStates.fromRemaining(remaining);
+		if (!this.storeBacked) {
+			this.evicted.values().removeIf(evictedDeadlines -> allPassed(evictedDeadlines, now));
+			if (states.eatenCount() > 0) {
+				this.evicted.put(chunk, deadlines);
+			}
+		}
+		return states;
+	}
+
+	/*
+	 * Checks whether every fruit of an evicted chunk grew back by the given time.
+	 */
+	private static boolean allPassed(double[] deadlines, double now) {
+		for (double deadline : deadlines) {
+			if (deadline > now) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * The fruits of a loaded chunk, hidden and shown as they are eaten and grow back.
+	 */
+	private final class ChunkFruits implements FruitListener {
+		// The world index of the chunk
+		private final int chunk;
+		// The fruits of the chunk, in the order of its trees
+		private final List<Fruit> fruits;
+
+		/*
+		 * Constructor for ChunkFruits, listening to every fruit of the given forest.
+		 */
+		private ChunkFruits(int chunk, List<GameObject> forest) {
+			this.chunk = chunk;
+			this.fruits = new ArrayList<>();
+			for (GameObject obj : forest) {
+				if (obj instanceof Fruit fruit) {
+					fruit.setListener(this);
+					this.fruits.add(fruit);
+				}
+			}
+		}
+
+		@Override
+		/*
+		 * Takes the eaten fruit out of the game and schedules it to grow back.
+		 */
+		public void onFruitEaten(Fruit fruit) {
+			chunkObjects.setHidden(this.chunk, fruit, true);
+			timers.schedule(fruit.getRegrowTimer(), timers.now() + RESPAWN_TIME);
+		}
+
+		@Override
+		/*
+		 * Puts the fruit that grew back into the game.
+		 */
+		public void onFruitRegrown(Fruit fruit) {
+			chunkObjects.setHidden(this.chunk, fruit, false);
+		}
+	}
+}
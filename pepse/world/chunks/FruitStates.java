@@ -0,0 +1,167 @@
+package pepse.world.chunks;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Which fruits of a chunk were eaten, and how long every eaten fruit still takes to grow
+ * back.
+ * <p>
+ * The fruits are numbered in the order of the trees of the chunk. The eaten ones are
+ * marked in a bitset, and only they have a remaining time, kept in the order of their
+ * numbers, so a chunk nobody ate from takes a few bytes. Remaining times are counted in
+ * seconds from the moment the states were taken, rather than on the clock of the game's
+ * timer wheel, which starts over with every game.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class FruitStates {
+	// Number of fruits marked by a word of the bitset
+	private static final int WORD_BITS = Long.SIZE;
+	// Message of the error raised when the remaining times do not match the eaten fruits
+	private static final String REMAINING_MISMATCH = "remaining times do not match the eaten fruits";
+
+	// Number of fruits of the chunk
+	private final int fruitCount;
+	// Bit i is set when fruit i was eaten
+	private final long[] eaten;
+	// The seconds every eaten fruit still takes to grow back, in the order of the fruits
+	private final float[] remaining;
+
+	/**
+	 * Constructor for FruitStates, with no fruit eaten.
+	 *
+	 * @param fruitCount the number of fruits of the chunk
+	 */
+	public FruitStates(int fruitCount) {
+		this(fruitCount, new long[wordCount(fruitCount)], new float[0]);
+	}
+
+	/*
+	 * Constructor for FruitStates, from the bitset of the eaten fruits and their remaining
+	 * times.
+	 */
+	private FruitStates(int fruitCount, long[] eaten, float[] remaining) {
+		int eatenCount = 0;
+		for (long word : eaten) {
+			eatenCount += Long.bitCount(word);
+		}
+		if (eatenCount != remaining.length) {
+			throw new IllegalArgumentException(REMAINING_MISMATCH);
+		}
+		this.fruitCount = fruitCount;
+		this.eaten = eaten;
+		this.remaining = remaining;
+	}
+
+	/**
+	 * Creates the states of the fruits of a chunk from the remaining time of every fruit.
+	 *
+	 * @param fruitRemaining the seconds every fruit still takes to grow back, in the order
+	 *                       of the fruits, 0 for a fruit that was not eaten
+	 * @return the states of the fruits
+	 */
+	public static FruitStates fromRemaining(float[] fruitRemaining) {
+		long[] eaten = new long[wordCount(fruitRemaining.length)];
+		float[] remaining = new float[fruitRemaining.length];
+		int eatenCount = 0;
+		for (int i = 0; i < fruitRemaining.length; i++) {
+			if (fruitRemaining[i] > 0) {
+				eaten[i / WORD_BITS] |= 1L << (i % WORD_BITS);
+				remaining[eatenCount++] = fruitRemaining[i];
+			}
+		}
+		return new FruitStates(fruitRemaining.length, eaten, Arrays.copyOf(remaining, eatenCount));
+	}
+
+	/*
+	 * Returns the number of words of a bitset marking the given number of fruits.
+	 */
+	private static int wordCount(int fruitCount) {
+		return (fruitCount + WORD_BITS - 1) / WORD_BITS;
+	}
+
+	/**
+	 * Returns the number of fruits of the chunk.
+	 *
+	 * @return the number of fruits
+	 */
+	public int fruitCount() {
+		return this.fruitCount;
+	}
+
+	/**
+	 * Returns the number of eaten fruits.
+	 *
+	 * @return the number of fruits that were eaten
+	 */
+	public int eatenCount() {
+		return this.remaining.length;
+	}
+
+	/**
+	 * Returns the remaining time of every fruit.
+	 *
+	 * @return the seconds every fruit still takes to grow back, in the order of the
+	 * fruits, 0 for a fruit that was not eaten
+	 */
+	public float[] toRemaining() {
+		float[] fruitRemaining = new float[this.fruitCount];
+		int next = 0;
+		for (int word = 0; word < this.eaten.length; word++) {
+			long bits = this.eaten[word];
+			while (bits != 0) {
+				fruitRemaining[word * WORD_BITS + Long.numberOfTrailingZeros(bits)] =
+						this.remaining[next++];
+				bits &= bits - 1;
+			}
+		}
+		return fruitRemaining;
+	}
+
+	/**
+	 * Returns the number of bytes writeTo puts in a buffer for these states.
+	 *
+	 * @return the encoded size of the states in bytes
+	 */
+	public int encodedSize() {
+		return Short.BYTES + this.eaten.length * Long.BYTES + this.remaining.length * Float.BYTES;
+	}
+
+	/**
+	 * Writes the states at the position of a buffer, and advances the position past them.
+	 *
+	 * @param buffer the buffer to write to, with at least encodedSize() bytes remaining
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		buffer.putShort((short) this.fruitCount);
+		for (long word : this.eaten) {
+			buffer.putLong(word);
+		}
+		for (float time : this.remaining) {
+			buffer.putFloat(time);
+		}
+	}
+
+	/**
+	 * Reads states written by writeTo at the position of a buffer, and advances the
+	 * position past them.
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the states read
+	 */
+	public static FruitStates readFrom(ByteBuffer buffer) {
+		int fruitCount = buffer.getShort();
+		long[] eaten = new long[wordCount(fruitCount)];
+		int eatenCount = 0;
+		for (int i = 0; i < eaten.length; i++) {
+			eaten[i] = buffer.getLong();
+			eatenCount += Long.bitCount(eaten[i]);
+		}
+		float[] remaining = new float[eatenCount];
+		for (int i = 0; i < eatenCount; i++) {
+			remaining[i] = buffer.getFloat();
+		}
+		return new FruitStates(fruitCount, eaten, remaining);
+	}
+}
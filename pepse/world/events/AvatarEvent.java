@@ -0,0 +1,62 @@
+package pepse.world.events;
+
+/**
+ * An event of an avatar: its kind, its value, and the value delivered before it.
+ * <p>
+ * Every AvatarEventBus keeps a single event object of every kind and fills it before
+ * delivering it, so publishing never allocates.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class AvatarEvent {
+	// The kind of the event
+	private final AvatarEventType type;
+	// The value of the event, whose meaning depends on its kind
+	private int value;
+	// The value of the previous event of the same kind
+	private int previousValue;
+
+	/*
+	 * Constructor for the event object of a kind.
+	 */
+	AvatarEvent(AvatarEventType type, int value) {
+		this.type = type;
+		this.value = value;
+		this.previousValue = value;
+	}
+
+	/**
+	 * Returns the kind of the event.
+	 *
+	 * @return the event type
+	 */
+	public AvatarEventType getType() {
+		return this.type;
+	}
+
+	/**
+	 * Returns the value of the event, as described by its type.
+	 *
+	 * @return the value
+	 */
+	public int getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Returns the value of the previous event of the same kind.
+	 *
+	 * @return the previous value, or the initial value if this is the first event
+	 */
+	public int getPreviousValue() {
+		return this.previousValue;
+	}
+
+	/*
+	 * Makes the event hold a new value.
+	 */
+	void advance(int newValue) {
+		this.previousValue = this.value;
+		this.value = newValue;
+	}
+}
@@ -0,0 +1,117 @@
+package pepse.world.events;
+
+import java.util.Arrays;
+
+/**
+ * Delivers the events of an avatar to the listeners subscribed to their kinds.
+ * <p>
+ * Events are published during the avatar's update and delivered together by flush, which
+ * the game manager calls once every frame after the objects were updated, at most one of
+ * every kind. An event of a coalesced kind is delivered
+ * only when its value differs from the value delivered last, so a listener of the
+ * energy runs when the energy changed and not every frame.
+ * <p>
+ * Every kind has a single preallocated event object, and the listeners of every kind are
+ * kept in an array replaced by a new copy whenever a listener subscribes or unsubscribes,
+ * so delivering events never allocates, and listeners may subscribe and unsubscribe
+ * while an event is delivered. The bus must be used from the game thread.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class AvatarEventBus {
+	// Every kind of event, by ordinal
+	private static final AvatarEventType[] TYPES = AvatarEventType.values();
+	// Value of a kind that was never delivered
+	private static final int NO_VALUE = Integer.MIN_VALUE;
+	// Listeners of a kind nobody subscribed to
+	private static final AvatarListener[] NO_LISTENERS = new AvatarListener[0];
+
+	// The event object of every kind
+	private final AvatarEvent[] events;
+	// The listeners of every kind
+	private final AvatarListener[][] listeners;
+	// Whether an event of every kind was published since the last flush
+	private final boolean[] pending;
+	// The value of the event of every kind published since the last flush
+	private final int[] pendingValues;
+
+	/**
+	 * Constructor for AvatarEventBus, without listeners.
+	 */
+	public AvatarEventBus() {
+		this.events = new AvatarEvent[TYPES.length];
+		this.listeners = new AvatarListener[TYPES.length][];
+		for (AvatarEventType type : TYPES) {
+			this.events[type.ordinal()] = new AvatarEvent(type, NO_VALUE);
+			this.listeners[type.ordinal()] = NO_LISTENERS;
+		}
+		this.pending = new boolean[TYPES.length];
+		this.pendingValues = new int[TYPES.length];
+	}
+
+	/**
+	 * Subscribes a listener to the events of a kind.
+	 *
+	 * @param type     the kind of events
+	 * @param listener the listener to call when an event of the kind is delivered
+	 */
+	public void subscribe(AvatarEventType type, AvatarListener listener) {
+		AvatarListener[] current = this.listeners[type.ordinal()];
+		AvatarListener[] updated = Arrays.copyOf(current, current.length + 1);
+		updated[current.length] = listener;
+		this.listeners[type.ordinal()] = updated;
+	}
+
+	/**
+	 * Unsubscribes a listener from the events of a kind.
+	 *
+	 * @param type     the kind of events
+	 * @param listener the listener to stop calling
+	 */
+	public void unsubscribe(AvatarEventType type, AvatarListener listener) {
+		AvatarListener[] current = this.listeners[type.ordinal()];
+		for (int i = 0; i < current.length; i++) {
+			if (current[i] == listener) {
+				AvatarListener[] updated = new AvatarListener[current.length - 1];
+				System.arraycopy(current, 0, updated, 0, i);
+				System.arraycopy(current, i + 1, updated, i, updated.length - i);
+				this.listeners[type.ordinal()] = updated;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Publishes an event, to be delivered by the next flush. A later event of the same
+	 * kind published before it replaces it.
+	 *
+	 * @param type  the kind of the event
+	 * @param value the value of the event, as described by its kind
+	 */
+	public void publish(AvatarEventType type, int value) {
+		this.pending[type.ordinal()] = true;
+		this.pendingValues[type.ordinal()] = value;
+	}
+
+	/**
+	 * Delivers the events published since the last flush, in the order of their kinds,
+	 * skipping coalesced events whose value did not change.
+	 */
+	public void flush() {
+		for (AvatarEventType type : TYPES) {
+			int index = type.ordinal();
+			if (!this.pending[index]) {
+				continue;
+			}
+			this.pending[index] = false;
+			AvatarEvent event = this.events[index];
+			if (type.isCoalesced() && event.getValue() == this.pendingValues[index]) {
+				continue;
+			}
+			event.advance(this.pendingValues[index]);
+			for (AvatarListener listener : this.listeners[index]) {
+				listener.onAvatarEvent(event);
+			}
+		}
+	}
+}
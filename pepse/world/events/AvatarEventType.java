@@ -0,0 +1,61 @@
+package pepse.world.events;
+
+/**
+ * The kinds of events an avatar publishes on its AvatarEventBus.
+ * <p>
+ * Jumping and landing are moments, and every one of them is delivered. The other kinds
+ * report a state, and are coalesced: they are delivered only when the state differs from
+ * the one delivered last.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public enum AvatarEventType {
+	/**
+	 * The avatar jumped. The value is not used.
+	 */
+	JUMP(false),
+	/**
+	 * The avatar landed after being in the air. The value is not used.
+	 */
+	LAND(false),
+	/**
+	 * The energy of the avatar changed. The value is the new energy, from 0 to 100.
+	 */
+	ENERGY(true),
+	/**
+	 * The avatar turned. The value is FACING_LEFT or FACING_RIGHT.
+	 */
+	FACING(true),
+	/**
+	 * The center of the avatar entered another chunk. The value is the chunk's index.
+	 */
+	CHUNK_CROSSED(true);
+
+	/**
+	 * Value of a FACING event when the avatar faces left.
+	 */
+	public static final int FACING_LEFT = -1;
+	/**
+	 * Value of a FACING event when the avatar faces right.
+	 */
+	public static final int FACING_RIGHT = 1;
+
+	// Whether an event of this kind is delivered only when its value changed
+	private final boolean coalesced;
+
+	/*
+	 * Constructor for an AvatarEventType.
+	 */
+	AvatarEventType(boolean coalesced) {
+		this.coalesced = coalesced;
+	}
+
+	/**
+	 * Checks whether events of this kind are delivered only when their value changed.
+	 *
+	 * @return true if the events are coalesced
+	 */
+	public boolean isCoalesced() {
+		return this.coalesced;
+	}
+}
@@ -0,0 +1,16 @@
+package pepse.world.events;
+
+/**
+ * Listens to the events of an avatar of a single kind.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public interface AvatarListener {
+	/**
+	 * Called when an event the listener subscribed to is delivered. The event object is
+	 * reused for the next event of its kind, so it must not be kept.
+	 *
+	 * @param event the delivered event
+	 */
+	void onAvatarEvent(AvatarEvent event);
+}
@@ -9,6 +9,7 @@ import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.FloatUnaryOperator;
 import pepse.world.Block;
 
 import java.awt.*;
@@ -17,7 +18,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 import java.util.function.BiConsumer;
-import java.util.function.Function;
 
 /**
  * class responsible for creating a forest full of trees.
@@ -37,7 +37,7 @@ public class Flora {
 	// ensure consistent flora placement across runs
 	private static final long MY_SEED = 10;
 	// Function to get terrain height at a given x-coordinate
-	private Function<Float, Float> getHeight;
+	private FloatUnaryOperator getHeight;
 
 
 	/**
@@ -45,31 +45,63 @@ public class Flora {
 	 *
 	 * @param getHeight a function that returns the terrain height at a given x-coordinate
 	 */
-	public Flora(Function<Float, Float> getHeight) {
+	public Flora(FloatUnaryOperator getHeight) {
 
 		this.getHeight = getHeight;
 	}
 
 	/**
 	 * Creates flora objects randomly within a horizontal range.
+	 * <p>
+	 * Whether a tree grows at a position depends only on that position, so splitting
+	 * a range into several smaller ranges produces exactly the same forest.
 	 *
 	 * @param minX the starting x-coordinate (inclusive)
 	 * @param maxX the ending x-coordinate (exclusive)
 	 * @return a list of generated plant GameObjects
 	 */
 	public List<GameObject> createInRange(int minX, int maxX) {
-		Random rand = new Random(Objects.hash(MY_SEED)); // Seeded for reproducibility
-		List<GameObject> forest = new ArrayList<>();
+		return this.createFromLayouts(this.layoutInRange(minX, maxX));
+	}
+
+	/**
+	 * Computes the layouts of the trees growing within a horizontal range, without
+	 * creating any GameObject. The layouts depend only on the range, so they may be
+	 * computed on any thread.
+	 *
+	 * @param minX the starting x-coordinate (inclusive)
+	 * @param maxX the ending x-coordinate (exclusive)
+	 * @return the layouts of the trees in the range, from left to right
+	 */
+	public List<TreeLayout> layoutInRange(int minX, int maxX) {
+		List<TreeLayout> layouts = new ArrayList<>();
 		TreeFactory treeFactory = new TreeFactory();
-		for (int i = minX; i < maxX - ROOT_WIDTH; i = i + ROOT_WIDTH) {
+		// Align the first position to the root grid
+		int start = (int) Math.ceil((double) minX / ROOT_WIDTH) * ROOT_WIDTH;
+		for (int i = start; i < maxX; i = i + ROOT_WIDTH) {
+			// Seeded by position for reproducibility
+			Random rand = new Random(Objects.hash(MY_SEED, i));
 			if (rand.nextInt(ROOT_PLANT_RANDOM) == 0) {
 				//this.buildRoot(i, forest); // Add root at position i
-				//treeFactory.buildTree(MY_SEED,i,this.getHeight.apply((float) i)).build();
-				this.addToForestList(forest,
-						treeFactory.buildTree(
-								MY_SEED, i, this.getHeight.apply((float) i)).build());
+				layouts.add(treeFactory.buildTree(
+						MY_SEED, i, this.getHeight.applyAsFloat(i)).layout());
 			}
 		}
+		return layouts;
+	}
+
+	/**
+	 * Creates the flora objects of trees laid out earlier by layoutInRange.
+	 *
+	 * @param layouts the layouts of the trees
+	 * @return a list of generated plant GameObjects
+	 */
+	public List<GameObject> createFromLayouts(List<TreeLayout> layouts) {
+		List<GameObject> forest = new ArrayList<>();
+		TreeFactory treeFactory = new TreeFactory();
+		for (TreeLayout layout : layouts) {
+			this.addToForestList(forest, treeFactory.buildTree(layout).build());
+		}
 		return forest;
 	}
 
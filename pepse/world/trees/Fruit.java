@@ -1,30 +1,49 @@
 package pepse.world.trees;
 
-import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.components.ScheduledTask;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.util.TimerWheel;
 import pepse.world.Avatar;
+import pepse.world.CollisionDispatcher;
+import pepse.world.KindedObject;
+import pepse.world.ObjectKind;
 
 /**
  * Represents a fruit object in the game world that can be collected by the avatar.
  * When the avatar collides with the fruit, it increases the avatar's energy by a fixed amount.
- * After being collected, the fruit temporarily disappears and then reappears after a delay.
+ * After being collected, the fruit temporarily disappears and then reappears when its
+ * regrow timer expires. The fruit does not count time itself: its listener schedules the
+ * timer, and may hide the fruit again when its chunk is loaded, so an eaten fruit stays
+ * eaten when its chunk is unloaded and loaded again.
+ * Fruits are pooled: obtain reuses a fruit of an evicted chunk when there is one.
  *
  * @author Eliyahu Peretz & Rom Ilany
  */
-public class Fruit extends GameObject {
-	// Tag to identify the avatar object in collisions
-	private static final String AVATAR_TAG = "avatar";
-	// Time  the fruit remains invisible
-	// after being collected before reappearing
-	private static final int WAITING_TIME = 30;
+public class Fruit extends KindedObject {
 	// Amount of energy added to the avatar upon collecting the fruit
 	private static final int ADD_ENERGY_AVATAR = 10;
 	// Maximum energy the avatar can have
 	private static final int MAX_ENERGY = 100;
+	// Maximal number of fruits kept for reuse
+	private static final int POOL_CAPACITY = 256;
+	// Fruits removed from the game, waiting to be reused
+	private static final ObjectPool<Fruit> POOL = new ObjectPool<>(POOL_CAPACITY);
+	// The renderable drawing the fruit while it hangs on the tree
+	private Renderable hangingRenderable;
+	// Makes the fruit grow back when it expires
+	private final TimerWheel.Timer regrowTimer;
+	// Whether the fruit was eaten and did not grow back yet
+	private boolean eaten;
+	// Told when the fruit is eaten and grows back, null if nobody listens
+	private FruitListener listener;
 
+	// gets eaten when the avatar touches it
+	static {
+		CollisionDispatcher.register(ObjectKind.FRUIT, ObjectKind.AVATAR,
+				(Fruit fruit, Avatar avatar, Collision collision) -> fruit.eatenBy(avatar));
+	}
 
 	/**
 	 * Construct a new GameObject instance.
@@ -36,37 +55,116 @@ public class Fruit extends GameObject {
 	 *                      the GameObject will not be rendered.
 	 */
 	public Fruit(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
-		super(topLeftCorner, dimensions, renderable);
+		super(topLeftCorner, dimensions, renderable, ObjectKind.FRUIT);
+		this.hangingRenderable = renderable;
+		this.eaten = false;
+		this.regrowTimer = new TimerWheel.Timer() {
+			// grow back
+			@Override
+			protected void expire() {
+				regrow();
+			}
+		};
+	}
+
+	/**
+	 * Returns a hanging fruit at the given position, reusing a pooled fruit if there is
+	 * one. May be called from any thread.
+	 *
+	 * @param topLeftCorner Position of the fruit, in window coordinates (pixels).
+	 * @param dimensions    Width and height in window coordinates.
+	 * @param renderable    The renderable representing the fruit.
+	 * @return a hanging fruit at the given position
+	 */
+	public static Fruit obtain(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+		Fruit fruit = POOL.acquire();
+		if (fruit == null) {
+			return new Fruit(topLeftCorner, dimensions, renderable);
+		}
+		fruit.setTopLeftCorner(topLeftCorner);
+		fruit.setDimensions(dimensions);
+		fruit.hangingRenderable = renderable;
+		fruit.eaten = false;
+		fruit.listener = null;
+		fruit.renderer().setRenderable(renderable);
+		return fruit;
+	}
+
+	/**
+	 * Returns the number of fruits waiting to be reused.
+	 *
+	 * @return the number of pooled fruits
+	 */
+	public static int pooledCount() {
+		return POOL.size();
 	}
 
 	@Override
 	/**
-	 * Handles the collision event with another GameObject.
-	 * If the other object is the avatar and the fruit is currently visible,
-	 * increases the avatar's energy (up to a maximum), makes the fruit temporarily invisible,
-	 * and schedules the fruit to reappear after a waiting period.
+	 * Puts the fruit back into the pool of fruits.
+	 */
+	protected void recycle() {
+		POOL.release(this);
+	}
+
+	/**
+	 * Sets who is told when the fruit is eaten and grows back.
+	 *
+	 * @param listener the listener, or null to tell nobody
+	 */
+	public void setListener(FruitListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Returns the timer that makes the fruit grow back when it expires.
+	 *
+	 * @return the regrow timer of the fruit
+	 */
+	public TimerWheel.Timer getRegrowTimer() {
+		return this.regrowTimer;
+	}
+
+	/**
+	 * Checks whether the fruit was eaten and did not grow back yet.
 	 *
-	 * @param other     The other GameObject involved in the collision.
-	 * @param collision The collision information.
+	 * @return true if the fruit is eaten
+	 */
+	public boolean isEaten() {
+		return this.eaten;
+	}
+
+	/**
+	 * Hides the fruit as eaten, without feeding anyone or telling the listener.
+	 */
+	public void hide() {
+		this.eaten = true;
+		this.renderer().setRenderable(null);
+	}
+
+	/**
+	 * Shows the fruit hanging on its tree again, and tells the listener.
 	 */
-	public void onCollisionEnter(GameObject other, Collision collision) {
-		super.onCollisionEnter(other, collision);
-		if (other.getTag().equals(AVATAR_TAG) &&
-				this.renderer().getRenderable() != null) {
-			Avatar avatar = (Avatar) other;
+	public void regrow() {
+		this.eaten = false;
+		this.renderer().setRenderable(this.hangingRenderable);
+		if (this.listener != null) {
+			this.listener.onFruitRegrown(this);
+		}
+	}
+
+	/*
+	 * If the fruit is currently visible, increases the avatar's energy (up to a maximum),
+	 * hides the fruit, and tells the listener it was eaten.
+	 */
+	private void eatenBy(Avatar avatar) {
+		if (!this.eaten) {
 			avatar.setEnergy(Math.min(
 					avatar.getEnergy() + ADD_ENERGY_AVATAR, MAX_ENERGY));
-			Renderable originalRenderable = this.renderer().getRenderable();
-			this.renderer().setRenderable(null);
-			new ScheduledTask(
-					this,
-					WAITING_TIME,
-					false,
-					() -> {
-						this.renderer().setRenderable(originalRenderable);
-					}
-			);
+			this.hide();
+			if (this.listener != null) {
+				this.listener.onFruitEaten(this);
+			}
 		}
-
 	}
 }
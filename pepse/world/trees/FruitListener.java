@@ -0,0 +1,22 @@
+package pepse.world.trees;
+
+/**
+ * Listens to a fruit being eaten and growing back.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public interface FruitListener {
+	/**
+	 * Called when the avatar ate the fruit, after it was hidden.
+	 *
+	 * @param fruit the eaten fruit
+	 */
+	void onFruitEaten(Fruit fruit);
+
+	/**
+	 * Called when the fruit grew back, after it was shown again.
+	 *
+	 * @param fruit the fruit that grew back
+	 */
+	void onFruitRegrown(Fruit fruit);
+}
@@ -1,30 +1,32 @@
 package pepse.world.trees;
 
-import danogl.GameObject;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
 import pepse.world.Block;
+import pepse.world.ObjectKind;
 
 /**
  * Represents a leaf block in the game world that animates by gently
  * swaying (rotating) and shrinking horizontally over a repeating cycle.
- * The leaf is implemented as a subclass of Block.
+ * The leaf is implemented as a subclass of Block, and is animated by a LeafSway together
+ * with all the other leaves.
+ * Leaves are pooled: obtain reuses a leaf of an evicted chunk, with the new delay.
  *
  * @author Eliyahu Peretz & Rom Ilany
  */
 public class Leaf extends Block {
-	// The final width scale factor for the leaf (85% of original width)
-
-	private static final float FINAL_WIDTH = 0.85f;
-	// Rotation angles for leaf swaying animation (in degrees)
-	private static final float INITIAL_ANGLE_VALUE = 0;
-	private static final float FINAL_ANGLE_VALUE = 20;
-	// Duration in seconds for one full swaying/shrinking cycle
-	private static final float LEAF_CYCLE_LENGTH = 3f;
 	// Tag to identify leaf objects
 	private static final String LEAF_TAG = "leaf";
+	// Maximal number of leaves kept for reuse
+	private static final int POOL_CAPACITY = 1024;
+	// Leaves removed from the game, waiting to be reused
+	private static final ObjectPool<Leaf> POOL = new ObjectPool<>(POOL_CAPACITY);
+
+	// The delay in seconds before the leaf starts swaying
+	private float swayDelay;
+	// The slot of the leaf in the table of the LeafSway animating it
+	private int swaySlot;
 
 	/**
 	 * Construct a new GameObject instance.
@@ -33,59 +35,70 @@ public class Leaf extends Block {
 	 *                      Note that (0,0) is the top-left corner of the window.
 	 * @param renderable    The renderable representing the object. Can be null, in which case
 	 *                      the GameObject will not be rendered.
-	 * @param time          the time that we want the transition happen
+	 * @param time          the delay before the leaf starts swaying
 	 */
 	public Leaf(Vector2 topLeftCorner, Renderable renderable, float time) {
-		super(topLeftCorner, renderable);
-		this.putInScheduledTask(time);
+		super(topLeftCorner, renderable, ObjectKind.LEAF);
+		this.swayDelay = time;
+		this.swaySlot = LeafSway.NO_SLOT;
 		this.setTag(LEAF_TAG);
 	}
 
-	/*
-	 * Updates the leaf's animation by starting two transitions:
-	 * 1. Rotates the leaf back and forth between INITIAL_ANGLE_VALUE and FINAL_ANGLE_VALUE degrees.
-	 * 2. Shrinks and expands the leaf's width horizontally between full width and FINAL_WIDTH.
-	 * Both transitions repeat continuously with the duration of LEAF_CYCLE_LENGTH .
+	/**
+	 * Returns a leaf at the given position, reusing a pooled leaf if there is one.
+	 * May be called from any thread.
+	 *
+	 * @param topLeftCorner Position of the leaf, in window coordinates (pixels).
+	 * @param renderable    The renderable representing the leaf.
+	 * @param time          the delay before a new leaf starts swaying
+	 * @return a leaf at the given position
 	 */
-	private void updateLeaf() {
-		final float initialDimension = this.getDimensions().x();
-		final float finalDimension = this.getDimensions().x() * FINAL_WIDTH;
-		new Transition<Float>(
-				this,
-				(Float angle) -> {
-					this.renderer().setRenderableAngle(angle);
-				},
-				INITIAL_ANGLE_VALUE,
-				FINAL_ANGLE_VALUE,
-				Transition.LINEAR_INTERPOLATOR_FLOAT,
-				LEAF_CYCLE_LENGTH,
-				Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-				null);
+	public static Leaf obtain(Vector2 topLeftCorner, Renderable renderable, float time) {
+		Leaf leaf = POOL.acquire();
+		if (leaf == null) {
+			return new Leaf(topLeftCorner, renderable, time);
+		}
+		leaf.setTopLeftCorner(topLeftCorner);
+		leaf.renderer().setRenderable(renderable);
+		leaf.swayDelay = time;
+		return leaf;
+	}
 
+	/**
+	 * Returns the number of leaves waiting to be reused.
+	 *
+	 * @return the number of pooled leaves
+	 */
+	public static int pooledCount() {
+		return POOL.size();
+	}
 
-		new Transition<Float>(
-				this,
-				(Float dimensionsAsVector2) -> {
-					this.setDimensions(new Vector2(dimensionsAsVector2, this.getDimensions().y()));
-				},
-				initialDimension,
-				finalDimension,
-				Transition.LINEAR_INTERPOLATOR_FLOAT,
-				LEAF_CYCLE_LENGTH,
-				Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-				null);
+	@Override
+	/**
+	 * Puts the leaf back into the pool of leaves.
+	 */
+	protected void recycle() {
+		POOL.release(this);
 	}
 
 	/*
-	 * Schedules a one-time task to start the leaf animation after the specified delay.
-	 *
-	 * @param time Delay in seconds before starting the animation.
+	 * Returns the delay in seconds before the leaf starts swaying.
+	 */
+	float getSwayDelay() {
+		return this.swayDelay;
+	}
+
+	/*
+	 * Returns the slot of the leaf in the table of its LeafSway, or NO_SLOT.
+	 */
+	int getSwaySlot() {
+		return this.swaySlot;
+	}
+
+	/*
+	 * Sets the slot of the leaf in the table of its LeafSway.
 	 */
-	private void putInScheduledTask(float time) {
-		new ScheduledTask(
-				this,
-				time,
-				false,
-				() -> this.updateLeaf());
+	void setSwaySlot(int slot) {
+		this.swaySlot = slot;
 	}
 }
@@ -0,0 +1,190 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Animates every leaf of the loaded chunks from a single clock: each leaf waits for its
+ * own delay, then rotates between INITIAL_ANGLE_VALUE and FINAL_ANGLE_VALUE degrees and
+ * shrinks to FINAL_WIDTH of its width and back, over a back-and-forth cycle of
+ * LEAF_CYCLE_LENGTH seconds each way.
+ * <p>
+ * The leaves and the time every one of them started swaying are kept in a table, so a
+ * frame costs one pass over it instead of a scheduled task and two transitions per leaf.
+ * Leaves outside the visible range are skipped; they take the pose of the current time
+ * as soon as they are seen again. The width takes one of WIDTH_LEVELS precomputed
+ * dimensions, and is set only when the level of a leaf changes.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public class LeafSway {
+	// The final width scale factor for the leaf (85% of original width)
+	private static final float FINAL_WIDTH = 0.85f;
+	// Rotation angles for leaf swaying animation (in degrees)
+	private static final float INITIAL_ANGLE_VALUE = 0;
+	private static final float FINAL_ANGLE_VALUE = 20;
+	// Duration in seconds of one way of the swaying/shrinking cycle
+	private static final float LEAF_CYCLE_LENGTH = 3f;
+	// Number of widths a leaf takes between its full width and its final width
+	private static final int WIDTH_LEVELS = 16;
+	// Initial capacity, in leaves, of the table
+	private static final int INITIAL_CAPACITY = 256;
+	// Slot of a leaf that is not in the table
+	static final int NO_SLOT = -1;
+
+	// The dimensions of a leaf at every width level, from full width to the final width
+	private static final Vector2[] LEVEL_DIMENSIONS = createLevelDimensions();
+
+	// The animated leaves
+	private Leaf[] leaves;
+	// The x-coordinate of every leaf
+	private float[] leafX;
+	// The clock time every leaf starts swaying at
+	private double[] startTimes;
+	// The width level every leaf was last given
+	private int[] widthLevels;
+	// Number of leaves in the table
+	private int count;
+	// Seconds elapsed since the animator was created
+	private double time;
+
+	/**
+	 * Constructor for LeafSway, without leaves.
+	 */
+	public LeafSway() {
+		this.leaves = new Leaf[INITIAL_CAPACITY];
+		this.leafX = new float[INITIAL_CAPACITY];
+		this.startTimes = new double[INITIAL_CAPACITY];
+		this.widthLevels = new int[INITIAL_CAPACITY];
+		this.count = 0;
+		this.time = 0;
+	}
+
+	/*
+	 * Creates the dimensions of a leaf at every width level.
+	 */
+	private static Vector2[] createLevelDimensions() {
+		Vector2[] dimensions = new Vector2[WIDTH_LEVELS];
+		for (int i = 0; i < WIDTH_LEVELS; i++) {
+			float scale = 1 - (1 - FINAL_WIDTH) * i / (WIDTH_LEVELS - 1);
+			dimensions[i] = new Vector2(Block.SIZE * scale, Block.SIZE);
+		}
+		return dimensions;
+	}
+
+	/**
+	 * Starts animating the leaves among the given objects. Every leaf starts swaying once
+	 * its sway delay has passed.
+	 *
+	 * @param objects the objects of a chunk
+	 */
+	public void addAll(List<GameObject> objects) {
+		for (GameObject object : objects) {
+			if (object instanceof Leaf leaf && leaf.getSwaySlot() == NO_SLOT) {
+				this.add(leaf);
+			}
+		}
+	}
+
+	/**
+	 * Stops animating the leaves among the given objects.
+	 *
+	 * @param objects the objects of a chunk
+	 */
+	public void removeAll(List<GameObject> objects) {
+		for (GameObject object : objects) {
+			if (object instanceof Leaf leaf && leaf.getSwaySlot() != NO_SLOT) {
+				this.remove(leaf);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of animated leaves.
+	 *
+	 * @return the number of leaves
+	 */
+	public int leafCount() {
+		return this.count;
+	}
+
+	/**
+	 * Advances the clock and poses every leaf in the visible range.
+	 *
+	 * @param deltaTime   The time elapsed, in seconds, since the last frame.
+	 * @param visibleMinX the smallest visible world x-coordinate
+	 * @param visibleMaxX the largest visible world x-coordinate
+	 */
+	public void update(float deltaTime, float visibleMinX, float visibleMaxX) {
+		this.time += deltaTime;
+		float minX = visibleMinX - Block.SIZE;
+		for (int i = 0; i < this.count; i++) {
+			if (this.leafX[i] < minX || this.leafX[i] > visibleMaxX) {
+				continue;
+			}
+			float progress = this.cycleProgress(i);
+			this.leaves[i].renderer().setRenderableAngle(
+					INITIAL_ANGLE_VALUE + (FINAL_ANGLE_VALUE - INITIAL_ANGLE_VALUE) * progress);
+			int level = Math.round(progress * (WIDTH_LEVELS - 1));
+			if (level != this.widthLevels[i]) {
+				this.widthLevels[i] = level;
+				this.leaves[i].setDimensions(LEVEL_DIMENSIONS[level]);
+			}
+		}
+	}
+
+	/*
+	 * Returns how far along its way between the initial and the final pose a leaf is,
+	 * from 0 to 1.
+	 */
+	private float cycleProgress(int slot) {
+		double elapsed = this.time - this.startTimes[slot];
+		if (elapsed <= 0) {
+			return 0;
+		}
+		float phase = (float) (elapsed / LEAF_CYCLE_LENGTH % 2);
+		return phase <= 1 ? phase : 2 - phase;
+	}
+
+	/*
+	 * Adds a leaf to the end of the table, in its initial pose.
+	 */
+	private void add(Leaf leaf) {
+		if (this.count == this.leaves.length) {
+			int capacity = this.count * 2;
+			this.leaves = Arrays.copyOf(this.leaves, capacity);
+			this.leafX = Arrays.copyOf(this.leafX, capacity);
+			this.startTimes = Arrays.copyOf(this.startTimes, capacity);
+			this.widthLevels = Arrays.copyOf(this.widthLevels, capacity);
+		}
+		this.leaves[this.count] = leaf;
+		this.leafX[this.count] = leaf.getTopLeftCorner().x();
+		this.startTimes[this.count] = this.time + leaf.getSwayDelay();
+		this.widthLevels[this.count] = 0;
+		leaf.renderer().setRenderableAngle(INITIAL_ANGLE_VALUE);
+		leaf.setDimensions(LEVEL_DIMENSIONS[0]);
+		leaf.setSwaySlot(this.count);
+		this.count++;
+	}
+
+	/*
+	 * Removes a leaf by moving the last leaf of the table into its slot.
+	 */
+	private void remove(Leaf leaf) {
+		int slot = leaf.getSwaySlot();
+		int last = this.count - 1;
+		Leaf moved = this.leaves[last];
+		this.leaves[slot] = moved;
+		this.leafX[slot] = this.leafX[last];
+		this.startTimes[slot] = this.startTimes[last];
+		this.widthLevels[slot] = this.widthLevels[last];
+		moved.setSwaySlot(slot);
+		this.leaves[last] = null;
+		leaf.setSwaySlot(NO_SLOT);
+		this.count = last;
+	}
+}
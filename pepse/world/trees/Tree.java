@@ -11,6 +11,14 @@ import java.util.List;
  * with different visual styles, behaviors, or building algorithms.
  */
 public interface Tree {
+	/**
+	 * Computes where every part of the tree goes, without creating any GameObject.
+	 * Building a tree from its layout gives the same objects build() gives.
+	 *
+	 * @return The layout of the tree.
+	 */
+	public TreeLayout layout();
+
 	/**
 	 * Builds and returns a list of GameObjects that together represent a tree.
 	 *
@@ -6,6 +6,9 @@ import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.profiling.TreeBuiltEvent;
+import pepse.world.KindedObject;
+import pepse.world.ObjectKind;
 
 import java.awt.*;
 import java.util.ArrayList;
@@ -46,6 +49,10 @@ public class TreeByDensity implements Tree {
 
 
 	private static final int TWO = 2;
+
+	// Half value, used to find the center of the root.
+
+	private static final float HALF = 0.5f;
 	// The size (width and height) of a leaf block in pixels.
 
 	private static final int LEAF_SIZE = 30;
@@ -63,6 +70,19 @@ public class TreeByDensity implements Tree {
 
 	private static final Color LEEFS_COLOR = new Color(50, 200, 30);
 
+	// Renderable shared by all tree trunks.
+
+	private static final Renderable ROOT_RENDERABLE = new RectangleRenderable(ROOT_COLOR);
+
+	// Renderable shared by all leaves.
+
+	private static final Renderable LEAF_RENDERABLE = new RectangleRenderable(LEEFS_COLOR);
+
+	// Renderables shared by all fruits, one per fruit color.
+
+	private static final Renderable[] FRUIT_RENDERABLES = {
+			new OvalRenderable(Color.red), new OvalRenderable(Color.ORANGE)};
+
 	// Tag string assigned to the root GameObject for identification.
 
 	private static final String ROOT_TAG = "root";
@@ -92,6 +112,9 @@ public class TreeByDensity implements Tree {
 	//used to position the root correctly on the ground.
 	private float groundAtHeightX;
 
+	// The layout of the tree, computed on first use.
+	private TreeLayout layout;
+
 	/**
 	 * Constructs a new TreeByDensity object at a specified horizontal location,
 	 * grounded at the given height, and using a seed for deterministic randomness.
@@ -107,80 +130,74 @@ public class TreeByDensity implements Tree {
 		this.groundAtHeightX = groundAtHeightX;
 	}
 
+	/**
+	 * Constructs a TreeByDensity object from a layout computed earlier,
+	 * so building it needs no randomization at all.
+	 *
+	 * @param layout The layout of the tree.
+	 */
+	public TreeByDensity(TreeLayout layout) {
+		this.tree = new ArrayList<>();
+		this.place = layout.getRootX();
+		this.layout = layout;
+	}
+
 	/*
-	 * Builds a tree root GameObject at the specified x position and adds it to the forest list.
+	 * Lays out the tree root at the specified x position.
 	 * The height of the root is randomized.
-	 * Also initiates the creation of leaves around the root.
+	 * Also initiates the layout of leaves around the root.
 	 *
 	 * @param x the x-coordinate for the root's top-left corner.
 	 * @param groundAtHeightX Y-coordinate of the ground level at position x.
 	 */
-	private void buildRoot(int x, float groundAtHeightX) {
+	private TreeLayout layoutRoot(int x, float groundAtHeightX) {
 		Random rand = new Random(Objects.hash(x, this.mySeed));
 		int height = (ROOT_HEIGHT / TWO) + rand.nextInt(ROOT_HEIGHT / TWO);
 		float yPosition = groundAtHeightX - height;
-		Renderable rend = new RectangleRenderable(ROOT_COLOR);
-		GameObject root = new GameObject(new Vector2(x
-				, yPosition)
-				, new Vector2(ROOT_WIDTH, height), rend);
-		root.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-		root.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-		root.setTag(ROOT_TAG);
-		this.tree.add(root);
-		this.buildLeafs(root, x);
-
+		TreeLayout treeLayout = new TreeLayout(x, yPosition, height);
+		this.layoutLeafs(treeLayout, x);
+		return treeLayout;
 	}
 
 	/*
-	 * Builds leaves (and sometimes fruits) around the given root.
+	 * Lays out leaves (and sometimes fruits) around the root of the given layout.
 	 * Leaves are distributed in a grid-like pattern around the root with some randomness.
 	 *
-	 * @param root the root GameObject to build leaves around.
+	 * @param treeLayout the layout holding the root to place leaves around.
 	 * @param x    the x-coordinate used as a seed for random generation.
 	 */
-	private void buildLeafs(GameObject root, int x) {
+	private void layoutLeafs(TreeLayout treeLayout, int x) {
 		Random rand = new Random(Objects.hash(x, this.mySeed));
-		Renderable rend = new RectangleRenderable(LEEFS_COLOR);
-		Leaf leaf;
-		int placeLeafStart = ((int) root.getTopLeftCorner().x() - (LEAF_BLOCK));
-		for (int i = ((int) root.getTopLeftCorner().y()) - (ROOT_HEIGHT / TWO);
-			 i < root.getCenter().y(); i = i + LEAF_SIZE) {
+		float rootTop = treeLayout.getRootY();
+		float rootCenter = rootTop + treeLayout.getRootHeight() * HALF;
+		int placeLeafStart = x - LEAF_BLOCK;
+		for (int i = ((int) rootTop) - (ROOT_HEIGHT / TWO);
+			 i < rootCenter; i = i + LEAF_SIZE) {
 			for (int j = placeLeafStart;
 				 j < placeLeafStart + LEAF_BLOCK + LEAF_BLOCK + ROOT_WIDTH; j = j + LEAF_SIZE) {
 				if (rand.nextInt(TEN) < LEAFS_DENSITY) {
-					leaf = new Leaf(new Vector2(j
-							, i)
-							, rend, rand.nextFloat(0f, 1));
-					leaf.setTag(LEAF_TAG);
-
-					this.tree.add(leaf);
-
+					treeLayout.addLeaf(j, i, rand.nextFloat(0f, 1));
 				} else {
-					this.addFruit(new Vector2(i, j), root);
+					this.layoutFruit(treeLayout, new Vector2(i, j), rootTop);
 				}
 			}
 		}
 	}
 
 	/*
-	 * Adds a fruit GameObject at the given vector position, if conditions meet.
+	 * Adds a fruit to the layout at the given vector position, if conditions meet.
 	 * Fruits appear with some randomness and only within the bounds of the root.
 	 *
+	 * @param treeLayout the layout to add the fruit to.
 	 * @param vec  the Vector2 representing the candidate position for the fruit.
-	 * @param root the root GameObject to check if the fruit is within bounds.
+	 * @param rootTop the y-coordinate of the root's top edge.
 	 */
-	private void addFruit(Vector2 vec, GameObject root) {
-		GameObject fruit;
+	private void layoutFruit(TreeLayout treeLayout, Vector2 vec, float rootTop) {
 		Random rand = new Random(Objects.hash(vec.x(), vec.y(), this.mySeed));
 		if (rand.nextInt(TEN) <= FRUITS_DENSITY
-				&& this.inRoot(vec.x(), root)) {
-			Color[] fruitColor = {Color.red, Color.ORANGE};
-			fruit = new Fruit(new Vector2(vec.y()
-					, vec.x())
-					, new Vector2(LEAF_SIZE, LEAF_SIZE),
-					new OvalRenderable(fruitColor[rand.nextInt(fruitColor.length)]));
-			fruit.setTag(FRUIT_TAG);
-			this.tree.add(fruit);
+				&& this.inRoot(vec.x(), rootTop)) {
+			treeLayout.addFruit((int) vec.y(), (int) vec.x(),
+					rand.nextInt(FRUIT_RENDERABLES.length));
 		}
 	}
 
@@ -188,12 +205,59 @@ public class TreeByDensity implements Tree {
 	 * Checks whether the given vertical position is above the top of the root.
 	 *
 	 * @param i    the y-coordinate to check.
-	 * @param root the root GameObject.
+	 * @param rootTop the y-coordinate of the root's top edge.
 	 * @return true if the position I is above the top edge of the root, false otherwise.
 	 */
-	private Boolean inRoot(float i, GameObject root) {
+	private Boolean inRoot(float i, float rootTop) {
 
-		return i < root.getTopLeftCorner().y();
+		return i < rootTop;
+	}
+
+	/*
+	 * Builds the tree root GameObject of the layout and adds it to the tree list.
+	 */
+	private void buildRoot(TreeLayout treeLayout) {
+		GameObject root = new KindedObject(new Vector2(treeLayout.getRootX()
+				, treeLayout.getRootY())
+				, new Vector2(ROOT_WIDTH, treeLayout.getRootHeight()), ROOT_RENDERABLE,
+				ObjectKind.ROOT);
+		root.physics().preventIntersectionsFromDirection(Vector2.ZERO);
+		root.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+		root.setTag(ROOT_TAG);
+		this.tree.add(root);
+	}
+
+	/*
+	 * Builds the leaves and fruits of the layout and adds them to the tree list.
+	 */
+	private void buildLeafs(TreeLayout treeLayout) {
+		for (int i = 0; i < treeLayout.leafCount(); i++) {
+			Leaf leaf = Leaf.obtain(new Vector2(treeLayout.leafX(i), treeLayout.leafY(i)),
+					LEAF_RENDERABLE, treeLayout.leafDelay(i));
+			leaf.setTag(LEAF_TAG);
+			this.tree.add(leaf);
+		}
+		for (int i = 0; i < treeLayout.fruitCount(); i++) {
+			GameObject fruit = Fruit.obtain(new Vector2(treeLayout.fruitX(i), treeLayout.fruitY(i)),
+					new Vector2(LEAF_SIZE, LEAF_SIZE),
+					FRUIT_RENDERABLES[treeLayout.fruitColor(i)]);
+			fruit.setTag(FRUIT_TAG);
+			this.tree.add(fruit);
+		}
+	}
+
+	@Override
+	/**
+	 * Computes where the root, leaves and fruits of the tree go, without creating
+	 * any GameObject.
+	 *
+	 * @return the layout of the tree
+	 */
+	public TreeLayout layout() {
+		if (this.layout == null) {
+			this.layout = this.layoutRoot(this.place, this.groundAtHeightX);
+		}
+		return this.layout;
 	}
 
 	@Override
@@ -203,7 +267,12 @@ public class TreeByDensity implements Tree {
 	 * @return list of GameObjects composing the tree
 	 */
 	public List<GameObject> build() {
-		this.buildRoot(this.place, this.groundAtHeightX);
+		TreeBuiltEvent event = new TreeBuiltEvent();
+		event.begin();
+		TreeLayout treeLayout = this.layout();
+		this.buildRoot(treeLayout);
+		this.buildLeafs(treeLayout);
+		event.finish(this.place, this.tree.size());
 		return this.tree;
 	}
 }
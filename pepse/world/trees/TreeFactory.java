@@ -17,4 +17,14 @@ public class TreeFactory {
 	public Tree buildTree(long mySeed, int x, float groundAtHeightX) {
 		return new TreeByDensity(mySeed, x, groundAtHeightX);
 	}
+
+	/**
+	 * Constructs and returns a Tree object from a layout computed earlier.
+	 *
+	 * @param layout the layout of the tree
+	 * @return a Tree object building the given layout
+	 */
+	public Tree buildTree(TreeLayout layout) {
+		return new TreeByDensity(layout);
+	}
 }
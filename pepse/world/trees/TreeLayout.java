@@ -0,0 +1,253 @@
+package pepse.world.trees;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The layout of a single tree: where its root stands and how tall it is, where each of
+ * its leaves grows and when it starts swaying, and where each of its fruits hangs and
+ * in which color.
+ * <p>
+ * A layout is plain data, so it can be computed on any thread and turned into game
+ * objects later. It is filled only by the tree that computes it and never changes once
+ * published.
+ * <p>
+ * A layout can also be written to and read back from a byte buffer. Leaves and fruits are
+ * stored as offsets from the root, so a whole tree takes a few bytes per part.
+ *
+ * @author Eliyahu Peretz & Rom Ilany
+ */
+public final class TreeLayout {
+	// Number of positions stored per leaf: x and y
+	private static final int LEAF_FIELDS = 2;
+	// Number of values stored per fruit: x, y and color index
+	private static final int FRUIT_FIELDS = 3;
+	// Initial capacity, in entries, of the leaf and fruit arrays
+	private static final int INITIAL_ENTRIES = 16;
+	// Encoded bytes of the root: x, y, height, leaf count and fruit count
+	private static final int ENCODED_ROOT_BYTES = Integer.BYTES + Float.BYTES + Short.BYTES * 3;
+	// Encoded bytes of a leaf: x and y offsets from the root, and its delay
+	private static final int ENCODED_LEAF_BYTES = Short.BYTES * 2 + Float.BYTES;
+	// Encoded bytes of a fruit: x and y offsets from the root, and its color index
+	private static final int ENCODED_FRUIT_BYTES = Short.BYTES * 2 + Byte.BYTES;
+
+	// The x-coordinate of the root's top-left corner
+	private final int rootX;
+	// The y-coordinate of the root's top-left corner
+	private final float rootY;
+	// The height of the root in pixels
+	private final int rootHeight;
+	// The x and y of every leaf, one after the other
+	private int[] leaves;
+	// The sway delay of every leaf
+	private float[] leafDelays;
+	// Number of leaves in the layout
+	private int leafCount;
+	// The x, y and color index of every fruit, one after the other
+	private int[] fruits;
+	// Number of fruits in the layout
+	private int fruitCount;
+
+	/**
+	 * Constructor for TreeLayout, without leaves or fruits.
+	 *
+	 * @param rootX      the x-coordinate of the root's top-left corner
+	 * @param rootY      the y-coordinate of the root's top-left corner
+	 * @param rootHeight the height of the root in pixels
+	 */
+	TreeLayout(int rootX, float rootY, int rootHeight) {
+		this.rootX = rootX;
+		this.rootY = rootY;
+		this.rootHeight = rootHeight;
+		this.leaves = new int[INITIAL_ENTRIES * LEAF_FIELDS];
+		this.leafDelays = new float[INITIAL_ENTRIES];
+		this.fruits = new int[INITIAL_ENTRIES * FRUIT_FIELDS];
+	}
+
+	/*
+	 * Adds a leaf with its top-left corner at (x, y), swaying after the given delay.
+	 */
+	void addLeaf(int x, int y, float delay) {
+		if (this.leafCount == this.leafDelays.length) {
+			this.leaves = Arrays.copyOf(this.leaves, this.leaves.length * 2);
+			this.leafDelays = Arrays.copyOf(this.leafDelays, this.leafDelays.length * 2);
+		}
+		this.leaves[this.leafCount * LEAF_FIELDS] = x;
+		this.leaves[this.leafCount * LEAF_FIELDS + 1] = y;
+		this.leafDelays[this.leafCount] = delay;
+		this.leafCount++;
+	}
+
+	/*
+	 * Adds a fruit with its top-left corner at (x, y), in the color of the given index.
+	 */
+	void addFruit(int x, int y, int color) {
+		if ((this.fruitCount + 1) * FRUIT_FIELDS > this.fruits.length) {
+			this.fruits = Arrays.copyOf(this.fruits, this.fruits.length * 2);
+		}
+		int at = this.fruitCount * FRUIT_FIELDS;
+		this.fruits[at] = x;
+		this.fruits[at + 1] = y;
+		this.fruits[at + 2] = color;
+		this.fruitCount++;
+	}
+
+	/**
+	 * Returns the x-coordinate of the root's top-left corner.
+	 *
+	 * @return the root's x-coordinate
+	 */
+	public int getRootX() {
+		return this.rootX;
+	}
+
+	/**
+	 * Returns the y-coordinate of the root's top-left corner.
+	 *
+	 * @return the root's y-coordinate
+	 */
+	public float getRootY() {
+		return this.rootY;
+	}
+
+	/**
+	 * Returns the height of the root.
+	 *
+	 * @return the root's height in pixels
+	 */
+	public int getRootHeight() {
+		return this.rootHeight;
+	}
+
+	/**
+	 * Returns the number of leaves of the tree.
+	 *
+	 * @return the number of leaves
+	 */
+	public int leafCount() {
+		return this.leafCount;
+	}
+
+	/**
+	 * Returns the x-coordinate of a leaf's top-left corner.
+	 *
+	 * @param leaf the index of the leaf
+	 * @return the leaf's x-coordinate
+	 */
+	public int leafX(int leaf) {
+		return this.leaves[leaf * LEAF_FIELDS];
+	}
+
+	/**
+	 * Returns the y-coordinate of a leaf's top-left corner.
+	 *
+	 * @param leaf the index of the leaf
+	 * @return the leaf's y-coordinate
+	 */
+	public int leafY(int leaf) {
+		return this.leaves[leaf * LEAF_FIELDS + 1];
+	}
+
+	/**
+	 * Returns the time a leaf waits before it starts swaying.
+	 *
+	 * @param leaf the index of the leaf
+	 * @return the leaf's sway delay in seconds
+	 */
+	public float leafDelay(int leaf) {
+		return this.leafDelays[leaf];
+	}
+
+	/**
+	 * Returns the number of fruits of the tree.
+	 *
+	 * @return the number of fruits
+	 */
+	public int fruitCount() {
+		return this.fruitCount;
+	}
+
+	/**
+	 * Returns the x-coordinate of a fruit's top-left corner.
+	 *
+	 * @param fruit the index of the fruit
+	 * @return the fruit's x-coordinate
+	 */
+	public int fruitX(int fruit) {
+		return this.fruits[fruit * FRUIT_FIELDS];
+	}
+
+	/**
+	 * Returns the y-coordinate of a fruit's top-left corner.
+	 *
+	 * @param fruit the index of the fruit
+	 * @return the fruit's y-coordinate
+	 */
+	public int fruitY(int fruit) {
+		return this.fruits[fruit * FRUIT_FIELDS + 1];
+	}
+
+	/**
+	 * Returns the index of a fruit's color.
+	 *
+	 * @param fruit the index of the fruit
+	 * @return the fruit's color index
+	 */
+	public int fruitColor(int fruit) {
+		return this.fruits[fruit * FRUIT_FIELDS + 2];
+	}
+
+	/**
+	 * Returns the number of bytes writeTo puts in a buffer for this layout.
+	 *
+	 * @return the encoded size of the layout in bytes
+	 */
+	public int encodedSize() {
+		return ENCODED_ROOT_BYTES + this.leafCount * ENCODED_LEAF_BYTES
+				+ this.fruitCount * ENCODED_FRUIT_BYTES;
+	}
+
+	/**
+	 * Writes the layout at the position of a buffer, and advances the position past it.
+	 *
+	 * @param buffer the buffer to write to, with at least encodedSize() bytes remaining
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		int originY = (int) this.rootY;
+		buffer.putInt(this.rootX).putFloat(this.rootY).putShort((short) this.rootHeight)
+				.putShort((short) this.leafCount).putShort((short) this.fruitCount);
+		for (int i = 0; i < this.leafCount; i++) {
+			buffer.putShort((short) (this.leafX(i) - this.rootX))
+					.putShort((short) (this.leafY(i) - originY)).putFloat(this.leafDelays[i]);
+		}
+		for (int i = 0; i < this.fruitCount; i++) {
+			buffer.putShort((short) (this.fruitX(i) - this.rootX))
+					.putShort((short) (this.fruitY(i) - originY)).put((byte) this.fruitColor(i));
+		}
+	}
+
+	/**
+	 * Reads a layout written by writeTo at the position of a buffer, and advances the
+	 * position past it.
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the layout read
+	 */
+	public static TreeLayout readFrom(ByteBuffer buffer) {
+		TreeLayout layout = new TreeLayout(buffer.getInt(), buffer.getFloat(), buffer.getShort());
+		int originY = (int) layout.rootY;
+		int leafCount = buffer.getShort();
+		int fruitCount = buffer.getShort();
+		for (int i = 0; i < leafCount; i++) {
+			int x = layout.rootX + buffer.getShort();
+			int y = originY + buffer.getShort();
+			layout.addLeaf(x, y, buffer.getFloat());
+		}
+		for (int i = 0; i < fruitCount; i++) {
+			int x = layout.rootX + buffer.getShort();
+			int y = originY + buffer.getShort();
+			layout.addFruit(x, y, buffer.get());
+		}
+		return layout;
+	}
+}